@@ -1,9 +1,12 @@
 package com.example.usermanagement;
 
+import com.example.usermanagement.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class UsermanagementApplication {
         public static void main(String[] args) {
         SpringApplication.run(UsermanagementApplication.class, args);
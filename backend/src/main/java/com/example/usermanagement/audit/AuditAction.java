@@ -0,0 +1,39 @@
+package com.example.usermanagement.audit;
+
+// What an audit record describes. The code is what the segment files store: never reuse
+// or renumber one, only append.
+public enum AuditAction {
+
+    LOGIN(1),
+    LOGIN_FAILED(2),
+    USER_REGISTERED(3),
+    USER_CREATED(4),
+    USER_UPDATED(5),
+    USER_ROLES_UPDATED(6),
+    USER_DELETED(7),
+    ROLE_CREATED(8),
+    ROLE_PERMISSIONS_UPDATED(9);
+
+    private static final AuditAction[] BY_CODE = new AuditAction[128];
+
+    static {
+        for (AuditAction action : values()) {
+            BY_CODE[action.code] = action;
+        }
+    }
+
+    private final byte code;
+
+    AuditAction(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    // null for a code written by a newer version
+    public static AuditAction fromCode(byte code) {
+        return code > 0 ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.usermanagement.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+// Audit trail of logins and user and role changes. record() only puts the entry in a
+// lock-free ring buffer; one writer thread drains it in batches into memory-mapped segment
+// files and forces them to disk per the fsync policy. A full buffer drops the entry (counted
+// in app.audit.records) or, with overflow=wait, holds the caller until there is room.
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final long MIN_IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    public enum Fsync { BATCH, INTERVAL, NEVER }
+
+    private final boolean enabled;
+    private final Path dir;
+    private final AuditRingBuffer<AuditRecord> buffer;
+    private final AuditSegmentWriter writer;
+    private final int batchSize;
+    private final boolean waitWhenFull;
+    private final Fsync fsync;
+    private final long fsyncInterval;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    // Writer thread only; logs the first of a run of failures, not each one
+    private boolean failing;
+
+    public AuditLog(@Value("${app.audit.enabled:true}") boolean enabled,
+                    @Value("${app.audit.dir:data/audit}") Path dir,
+                    @Value("${app.audit.segment-size:64MB}") DataSize segmentSize,
+                    @Value("${app.audit.buffer-size:65536}") int bufferSize,
+                    @Value("${app.audit.batch-size:1024}") int batchSize,
+                    @Value("${app.audit.overflow:drop}") String overflow,
+                    @Value("${app.audit.fsync:interval}") String fsync,
+                    @Value("${app.audit.fsync-interval:1s}") Duration fsyncInterval,
+                    @Value("${app.audit.retention:90d}") Duration retention) {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("app.audit.segment-size must be below 2GB");
+        }
+        this.enabled = enabled;
+        this.dir = dir;
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.writer = new AuditSegmentWriter(dir, (int) segmentSize.toBytes(), retention);
+        this.batchSize = batchSize;
+        this.waitWhenFull = "wait".equalsIgnoreCase(overflow);
+        this.fsync = Fsync.valueOf(fsync.trim().toUpperCase(Locale.ROOT));
+        this.fsyncInterval = fsyncInterval.toNanos();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        writer.open();
+        running = true;
+        thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Stops taking entries, writes out what is buffered and forces it to disk
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // The actor is the authenticated user of the calling thread
+    public void record(AuditAction action, String subject, String detail) {
+        record(action, currentActor(), subject, detail);
+    }
+
+    public void record(AuditAction action, String actor, String subject, String detail) {
+
+        if (!running) {
+            return;
+        }
+
+        AuditRecord record = new AuditRecord(System.currentTimeMillis(), action, actor, subject, detail);
+        if (buffer.offer(record)) {
+            return;
+        }
+        if (waitWhenFull) {
+            while (running) {
+                LockSupport.parkNanos(MIN_IDLE_NANOS);
+                if (buffer.offer(record)) {
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
+
+    // Records from the segment files, so entries still in the buffer are not included yet
+    public List<AuditRecord> find(long from, long to, Predicate<AuditRecord> filter, int limit) {
+        return new AuditReader(dir).find(from, to, filter, limit);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int pending() {
+        return buffer.size();
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    private void run() {
+
+        long idle = MIN_IDLE_NANOS;
+        long lastForce = System.nanoTime();
+
+        while (true) {
+            int drained = buffer.drain(this::append, batchSize);
+
+            if (fsync == Fsync.BATCH
+                    || (fsync == Fsync.INTERVAL && System.nanoTime() - lastForce >= fsyncInterval)) {
+                if (writer.isDirty()) {
+                    force();
+                }
+                lastForce = System.nanoTime();
+            }
+
+            if (drained > 0) {
+                idle = MIN_IDLE_NANOS;
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+            // Nothing queued: back off, so an idle log costs at most 100 wake-ups a second
+            LockSupport.parkNanos(idle);
+            idle = Math.min(idle * 2, MAX_IDLE_NANOS);
+        }
+
+        // Producers that saw running=true just before shutdown may still land here
+        buffer.drain(this::append, Integer.MAX_VALUE);
+        try {
+            writer.close();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Could not close the audit log in {}", dir, ex);
+        }
+    }
+
+    private void append(AuditRecord record) {
+        try {
+            writer.append(record);
+            written.increment();
+            if (failing) {
+                failing = false;
+                log.info("Audit records are being written to {} again", dir);
+            }
+        } catch (IOException | RuntimeException ex) {
+            failed.increment();
+            if (!failing) {
+                failing = true;
+                log.error("Could not write an audit record to {}", dir, ex);
+            }
+        }
+    }
+
+    private void force() {
+        try {
+            writer.force();
+        } catch (RuntimeException ex) {
+            log.error("Could not force the audit log in {} to disk", dir, ex);
+        }
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || authentication instanceof AnonymousAuthenticationToken
+                ? null
+                : authentication.getName();
+    }
+}
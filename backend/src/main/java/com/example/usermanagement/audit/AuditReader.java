@@ -0,0 +1,128 @@
+package com.example.usermanagement.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+// Reads audit segments, including the one being written. Segments whose timestamp range
+// misses the query are skipped on their header alone. Also runnable on its own against a
+// copy of the directory:
+//   java -cp <app.jar> -Dloader.main=com.example.usermanagement.audit.AuditReader \
+//        org.springframework.boot.loader.launch.PropertiesLauncher <dir> [from] [to]
+public class AuditReader {
+
+    private final Path dir;
+
+    public AuditReader(Path dir) {
+        this.dir = dir;
+    }
+
+    // Records with from <= timestamp < to, in the order they were written, until visitor returns false
+    public void scan(long from, long to, Predicate<AuditRecord> visitor) {
+
+        CRC32C crc = new CRC32C();
+        try {
+            for (Path file : AuditSegments.list(dir)) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    if (channel.size() < AuditSegments.HEADER_SIZE) {
+                        continue;
+                    }
+                    MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    if (!overlaps(segment, from, to)) {
+                        continue;
+                    }
+                    if (!scan(segment, from, to, visitor, crc)) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read audit log " + dir, ex);
+        }
+    }
+
+    public List<AuditRecord> find(long from, long to, Predicate<AuditRecord> filter, int limit) {
+        List<AuditRecord> found = new ArrayList<>();
+        scan(from, to, record -> {
+            if (filter.test(record)) {
+                found.add(record);
+            }
+            return found.size() < limit;
+        });
+        return found;
+    }
+
+    // 0 for an empty or unreadable segment
+    static long newestTimestamp(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(AuditSegments.HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // keep reading
+            }
+            return header.position() == AuditSegments.HEADER_SIZE
+                    && header.getInt(0) == AuditSegments.MAGIC
+                    ? header.getLong(AuditSegments.MAX_TIMESTAMP)
+                    : 0L;
+        }
+    }
+
+    private static boolean overlaps(ByteBuffer segment, long from, long to) {
+        if (segment.getInt(0) != AuditSegments.MAGIC) {
+            return false;
+        }
+        long min = segment.getLong(AuditSegments.MIN_TIMESTAMP);
+        long max = segment.getLong(AuditSegments.MAX_TIMESTAMP);
+        // Both are 0 while the segment is empty
+        return max != 0 && min < to && max >= from;
+    }
+
+    private static boolean scan(ByteBuffer segment, long from, long to,
+                                Predicate<AuditRecord> visitor, CRC32C crc) {
+        int offset = AuditSegments.HEADER_SIZE;
+        int length;
+        while ((length = AuditSegments.validRecord(segment, offset, crc)) > 0) {
+            long timestamp = segment.getLong(offset + AuditSegments.RECORD_HEADER);
+            if (timestamp >= from && timestamp < to) {
+                AuditRecord record = AuditSegments.decode(segment, offset);
+                if (record != null && !visitor.test(record)) {
+                    return false;
+                }
+            }
+            offset += AuditSegments.RECORD_HEADER + length;
+        }
+        return true;
+    }
+
+    // <dir> [from] [to] as ISO-8601 instants; prints one tab-separated line per record
+    public static void main(String[] args) {
+
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("usage: AuditReader <dir> [from] [to]");
+            System.exit(2);
+        }
+        long from = args.length > 1 ? Instant.parse(args[1]).toEpochMilli() : 0L;
+        long to = args.length > 2 ? Instant.parse(args[2]).toEpochMilli() : Long.MAX_VALUE;
+
+        new AuditReader(Path.of(args[0])).scan(from, to, record -> {
+            System.out.println(Instant.ofEpochMilli(record.timestamp())
+                    + "\t" + record.action()
+                    + "\t" + orDash(record.actor())
+                    + "\t" + orDash(record.subject())
+                    + "\t" + orDash(record.detail()));
+            return true;
+        });
+    }
+
+    private static String orDash(String value) {
+        return value == null ? "-" : value;
+    }
+}
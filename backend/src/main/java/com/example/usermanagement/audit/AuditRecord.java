@@ -0,0 +1,10 @@
+package com.example.usermanagement.audit;
+
+// One audit log entry. timestamp is epoch millis; actor is the authenticated user (null when
+// anonymous), subject what was acted on, detail anything else worth keeping.
+public record AuditRecord(long timestamp,
+                          AuditAction action,
+                          String actor,
+                          String subject,
+                          String detail) {
+}
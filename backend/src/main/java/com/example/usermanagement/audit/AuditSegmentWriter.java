@@ -0,0 +1,200 @@
+package com.example.usermanagement.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// Appends records to the current memory-mapped segment and starts the next one when a record
+// does not fit. Not thread-safe: AuditLog's writer thread is its only user. Appends only copy
+// into the mapping; force() writes the dirty range to disk.
+final class AuditSegmentWriter implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSegmentWriter.class);
+
+    private final Path dir;
+    private final int segmentSize;
+    private final Duration retention;
+    private final CRC32C crc = new CRC32C();
+
+    private long sequence;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+    private int forced;
+    private long minTimestamp;
+    private long maxTimestamp;
+
+    AuditSegmentWriter(Path dir, int segmentSize, Duration retention) {
+        if (segmentSize < 64 * 1024) {
+            throw new IllegalArgumentException("segment size must be at least 64KB");
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.retention = retention;
+    }
+
+    // Resumes after the last intact record of the newest segment; a new segment is only
+    // created by the first append
+    void open() throws IOException {
+
+        List<Path> segments = AuditSegments.list(dir);
+        if (segments.isEmpty()) {
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        sequence = AuditSegments.sequence(last);
+
+        FileChannel resumed = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (resumed.size() < AuditSegments.HEADER_SIZE) {
+            resumed.close();
+            return;
+        }
+        MappedByteBuffer mapped = resumed.map(FileChannel.MapMode.READ_WRITE, 0, resumed.size());
+        if (mapped.getInt(0) != AuditSegments.MAGIC) {
+            log.warn("{} is not an audit segment, starting a new one", last);
+            resumed.close();
+            return;
+        }
+
+        int offset = AuditSegments.HEADER_SIZE;
+        long min = 0;
+        long max = 0;
+        int length;
+        while ((length = AuditSegments.validRecord(mapped, offset, crc)) > 0) {
+            long timestamp = mapped.getLong(offset + AuditSegments.RECORD_HEADER);
+            min = min == 0 ? timestamp : Math.min(min, timestamp);
+            max = Math.max(max, timestamp);
+            offset += AuditSegments.RECORD_HEADER + length;
+        }
+
+        // Clear what a torn append may have left, so a shorter record cannot end in stale bytes
+        int tornEnd = Math.min(mapped.limit(), offset + AuditSegments.MAX_RECORD);
+        for (int i = offset; i < tornEnd; i++) {
+            mapped.put(i, (byte) 0);
+        }
+
+        channel = resumed;
+        segment = mapped;
+        position = offset;
+        forced = AuditSegments.HEADER_SIZE;
+        minTimestamp = min;
+        maxTimestamp = max;
+        writeTimestamps();
+        force();
+    }
+
+    void append(AuditRecord record) throws IOException {
+
+        byte[] actor = AuditSegments.utf8(record.actor());
+        byte[] subject = AuditSegments.utf8(record.subject());
+        byte[] detail = AuditSegments.utf8(record.detail());
+        int length = 8 + 1 + 6 + actor.length + subject.length + detail.length;
+
+        if (segment == null || position + AuditSegments.RECORD_HEADER + length > segment.limit()) {
+            roll();
+        }
+
+        int body = position + AuditSegments.RECORD_HEADER;
+        segment.position(body);
+        segment.putLong(record.timestamp());
+        segment.put(record.action().code());
+        putField(actor);
+        putField(subject);
+        putField(detail);
+
+        segment.putInt(position + 4, AuditSegments.checksum(segment, body, length, crc));
+        // The length goes in last: until then the record reads as the end of the data
+        segment.putInt(position, length);
+        position = body + length;
+
+        minTimestamp = minTimestamp == 0 ? record.timestamp() : Math.min(minTimestamp, record.timestamp());
+        maxTimestamp = Math.max(maxTimestamp, record.timestamp());
+        writeTimestamps();
+    }
+
+    // Writes the records appended since the last call to the storage device
+    void force() {
+        if (segment == null || forced == position) {
+            return;
+        }
+        segment.force(0, AuditSegments.HEADER_SIZE);
+        segment.force(forced, position - forced);
+        forced = position;
+    }
+
+    boolean isDirty() {
+        return segment != null && forced != position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            segment = null;
+        }
+    }
+
+    private void roll() throws IOException {
+
+        close();
+        Files.createDirectories(dir);
+        sequence++;
+        Path file = AuditSegments.path(dir, sequence);
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping past the end grows the file; the unwritten rest stays zero (and sparse)
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.putInt(0, AuditSegments.MAGIC);
+        segment.putInt(4, AuditSegments.VERSION);
+        position = AuditSegments.HEADER_SIZE;
+        forced = 0;
+        minTimestamp = 0;
+        maxTimestamp = 0;
+
+        deleteExpired();
+    }
+
+    private void putField(byte[] value) {
+        segment.putShort((short) value.length);
+        segment.put(value);
+    }
+
+    private void writeTimestamps() {
+        segment.putLong(AuditSegments.MIN_TIMESTAMP, minTimestamp);
+        segment.putLong(AuditSegments.MAX_TIMESTAMP, maxTimestamp);
+    }
+
+    // Older segments whose newest record is past retention; zero keeps everything
+    private void deleteExpired() {
+        if (retention.isZero()) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        try {
+            for (Path file : AuditSegments.list(dir)) {
+                if (AuditSegments.sequence(file) >= sequence) {
+                    continue;
+                }
+                long newest = AuditReader.newestTimestamp(file);
+                if (newest < cutoff) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Could not delete expired audit segments in {}", dir, ex);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.usermanagement.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// On-disk format shared by the writer and the reader.
+//
+// A segment is a preallocated file audit-<sequence>.seg: a 32-byte header (magic, version,
+// smallest and largest record timestamp, 0 while empty) followed by records. A record is
+// its body length (int), the CRC-32C of the body (int) and the body: timestamp (long),
+// action code (byte), then actor, subject and detail as an unsigned short byte count and
+// UTF-8 bytes, a count of 0 standing for null. A length of 0 marks the end of the data; so
+// does a record that runs past the file or fails its checksum, which is how a record torn
+// by a crash is dropped.
+final class AuditSegments {
+
+    static final int MAGIC = 0x41554431; // "AUD1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int MIN_TIMESTAMP = 8;
+    static final int MAX_TIMESTAMP = 16;
+    static final int RECORD_HEADER = 8;
+
+    // Longer fields are cut; this bounds a record to about 6 KB
+    static final int MAX_FIELD_CHARS = 1024;
+    static final int MAX_RECORD = RECORD_HEADER + 8 + 1 + 3 * (2 + 3 * MAX_FIELD_CHARS);
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".seg";
+
+    private AuditSegments() {
+    }
+
+    static Path path(Path dir, long sequence) {
+        return dir.resolve(String.format("%s%019d%s", PREFIX, sequence, SUFFIX));
+    }
+
+    static long sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // Oldest first; empty when the directory does not exist
+    static List<Path> list(Path dir) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                segments.add(file);
+            }
+        }
+        // Zero-padded, so name order is sequence order
+        segments.sort(null);
+        return segments;
+    }
+
+    static byte[] utf8(String value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value.length() > MAX_FIELD_CHARS) {
+            value = value.substring(0, MAX_FIELD_CHARS);
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static int checksum(ByteBuffer segment, int offset, int length, CRC32C crc) {
+        crc.reset();
+        crc.update(segment.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    // Length of the body at offset, or -1 at the end of the data
+    static int validRecord(ByteBuffer segment, int offset, CRC32C crc) {
+        if (offset + RECORD_HEADER > segment.limit()) {
+            return -1;
+        }
+        int length = segment.getInt(offset);
+        if (length <= 0 || length > MAX_RECORD || offset + RECORD_HEADER + length > segment.limit()) {
+            return -1;
+        }
+        int expected = segment.getInt(offset + 4);
+        return checksum(segment, offset + RECORD_HEADER, length, crc) == expected ? length : -1;
+    }
+
+    // null for an action this version does not know
+    static AuditRecord decode(ByteBuffer segment, int offset) {
+        int position = offset + RECORD_HEADER;
+        long timestamp = segment.getLong(position);
+        AuditAction action = AuditAction.fromCode(segment.get(position + 8));
+        if (action == null) {
+            return null;
+        }
+        position += 9;
+
+        String[] fields = new String[3];
+        for (int i = 0; i < fields.length; i++) {
+            int length = Short.toUnsignedInt(segment.getShort(position));
+            position += 2;
+            if (length > 0) {
+                byte[] bytes = new byte[length];
+                segment.get(position, bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+        return new AuditRecord(timestamp, action, fields[0], fields[1], fields[2]);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.usermanagement.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Size-bounded in-process cache with a time to live and least-recently-used eviction.
+// Reads take no lock: a hit is one map lookup and a write of the entry's access time.
+// Past maxSize, one writer drops the expired entries and then the least recently used
+// until 90% of maxSize is left; others carry on meanwhile, so the size may briefly
+// overshoot. Loading happens outside any lock, so a slow loader never blocks readers.
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    // Bumped by every invalidation; loads that started before one are not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public V get(K key) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt - now <= 0) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        entry.lastAccess = now;
+        hits.increment();
+        return entry.value;
+    }
+
+    // Returns the cached value or loads it; null results are not cached
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+
+        long startGeneration = generation.get();
+        value = loader.apply(key);
+
+        if (value != null) {
+            putIfGeneration(key, value, startGeneration);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        putIfGeneration(key, value, -1L);
+    }
+
+    // The check and the write run under the key's bin lock, as does invalidate(key),
+    // so an invalidation cannot slip in between them
+    private void putIfGeneration(K key, V value, long expectedGeneration) {
+        long now = System.nanoTime();
+        entries.compute(key, (k, old) ->
+                expectedGeneration != -1L && generation.get() != expectedGeneration
+                        ? old
+                        : new Entry<>(value, now + ttlNanos, now));
+        if (entries.size() > maxSize) {
+            evict(now);
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.compute(key, (k, old) -> {
+            generation.incrementAndGet();
+            return null;
+        });
+    }
+
+    // Bumped first: a load that passed its check before this clears its bin is removed with it
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int maxSize() { return maxSize; }
+    public long hitCount() { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+    public long evictionCount() { return evictions.sum(); }
+
+    // One thread at a time; the others carry on without waiting
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Access times copied once: hits keep changing them while the list is sorted
+            List<Candidate<K, V>> live = new ArrayList<>(entries.size());
+            for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+                Entry<V> entry = e.getValue();
+                if (entry.expiresAt - now <= 0) {
+                    remove(e.getKey(), entry);
+                } else {
+                    live.add(new Candidate<>(e.getKey(), entry, entry.lastAccess));
+                }
+            }
+
+            int target = Math.max(1, maxSize - maxSize / 10);
+            int excess = live.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            live.sort(Comparator.comparingLong(Candidate::lastAccess));
+            for (int i = 0; i < excess; i++) {
+                remove(live.get(i).key(), live.get(i).entry());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    // Only the entry that was seen; a newer value for the key stays
+    private void remove(K key, Entry<V> entry) {
+        if (entries.remove(key, entry)) {
+            evictions.increment();
+        }
+    }
+
+    private record Candidate<K, V>(K key, Entry<V> entry, long lastAccess) {
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+        final long expiresAt;
+
+        // System.nanoTime() of the last hit; racy writes only blur the eviction order
+        volatile long lastAccess;
+
+        Entry(V value, long expiresAt, long lastAccess) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.usermanagement.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// A JSON response body encoded once: the bytes, a gzip copy when the body is big enough to
+// gain from it, a strong ETag, and the response headers of both. Serving one only picks
+// the representation; nothing is serialized or formatted again.
+public final class EncodedResponse {
+
+    private static final String GZIP = "gzip";
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String eTag;
+    private final HttpHeaders jsonHeaders;
+    private final HttpHeaders gzipHeaders;
+
+    private EncodedResponse(byte[] json, byte[] gzip, String eTag, CacheControl cacheControl) {
+        this.json = json;
+        this.gzip = gzip;
+        this.eTag = eTag;
+        this.jsonHeaders = headers(cacheControl, '"' + eTag + '"', gzip != null, null);
+        this.gzipHeaders = gzip == null
+                ? null
+                : headers(cacheControl, '"' + eTag + "-gzip\"", true, GZIP);
+    }
+
+    // eTag is the opaque tag without quotes; the gzip copy is tagged <eTag>-gzip
+    public static EncodedResponse of(byte[] json, String eTag, int gzipMinSize, CacheControl cacheControl) {
+        byte[] gzip = gzipMinSize > 0 && json.length >= gzipMinSize ? gzip(json) : null;
+        // Not worth a second representation when compression hardly helps
+        if (gzip != null && gzip.length > json.length * 9 / 10) {
+            gzip = null;
+        }
+        return new EncodedResponse(json, gzip, eTag, cacheControl);
+    }
+
+    public String eTag() {
+        return eTag;
+    }
+
+    public int size() {
+        return json.length + (gzip == null ? 0 : gzip.length);
+    }
+
+    // A matching If-None-Match is answered with 304 by Spring MVC before the body is written
+    public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding) {
+        if (gzip != null && acceptsGzip(acceptEncoding)) {
+            return new ResponseEntity<>(gzip, gzipHeaders, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(json, jsonHeaders, HttpStatus.OK);
+    }
+
+    // Scans the header in place; only a q parameter on gzip is looked at more closely
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        int start = 0;
+        int length = acceptEncoding.length();
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int semicolon = acceptEncoding.indexOf(';', start);
+            int nameEnd = semicolon >= 0 && semicolon < end ? semicolon : end;
+            if (isToken(acceptEncoding, start, nameEnd, GZIP)) {
+                return nameEnd == end || !zeroQuality(acceptEncoding.substring(nameEnd + 1, end));
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static boolean isToken(String value, int start, int end, String token) {
+        while (start < end && value.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end - start == token.length() && value.regionMatches(true, start, token, 0, token.length());
+    }
+
+    private static boolean zeroQuality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                return trimmed.substring(2).trim().matches("0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static HttpHeaders headers(CacheControl cacheControl, String eTag, boolean vary, String encoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setCacheControl(cacheControl);
+        headers.setETag(eTag);
+        if (vary) {
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        }
+        if (encoding != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        // Shared by every response built from this entry
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.usermanagement.config;
+
+import com.example.usermanagement.audit.AuditRecord;
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.dtos.responseDto.ErrorResponse;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.metrics.SqlStatementCounter;
+import com.example.usermanagement.repository.UserCredentials;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+// Reflection hints for the native image (mvn -Pnative native:compile) that Spring AOT cannot
+// derive: jjwt's API instantiates its implementation by class name and finds the Jackson
+// serializer through the ServiceLoader; ResponseCache, EventOutbox and the event sinks
+// serialize DTOs with ObjectMapper rather than returning them from a controller; JPQL
+// "select new" calls constructors by name; Hibernate creates the statement inspector from
+// a property. Entities, Flyway migrations and controller types are covered by Spring Boot.
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        // jjwt probes for Jackson 2 by name before choosing jjwt-jackson
+        hints.reflection().registerType(TypeReference.of("com.fasterxml.jackson.databind.ObjectMapper"));
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                UserResponseDTO.class,
+                RoleResponseDTO.class,
+                ChangeEventDTO.class,
+                ErrorResponse.class,
+                AuditRecord.class);
+
+        hints.reflection().registerType(UserResponseDTO.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(UserCredentials.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(SqlStatementCounter.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+}
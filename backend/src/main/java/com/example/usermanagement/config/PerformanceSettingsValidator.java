@@ -0,0 +1,121 @@
+package com.example.usermanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Warns at startup about settings that cost throughput or startup time in production:
+// statement logging, unbatched JDBC, open-in-view, a MySQL driver without statement
+// caching, and Hibernate schema generation. The prod profile sets all of them;
+// app.startup.settings-check=false silences the check.
+@Component
+public class PerformanceSettingsValidator {
+
+    private static final Logger log = LoggerFactory.getLogger(PerformanceSettingsValidator.class);
+
+    private static final String HIBERNATE = "spring.jpa.properties.hibernate.";
+    private static final String DRIVER = "spring.datasource.hikari.data-source-properties.";
+
+    private final Environment environment;
+
+    public PerformanceSettingsValidator(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void validate() {
+
+        if (!environment.getProperty("app.startup.settings-check", Boolean.class, true)) {
+            return;
+        }
+
+        List<String> problems = problems();
+        for (String problem : problems) {
+            log.warn(problem);
+        }
+        if (!problems.isEmpty()) {
+            log.warn("{} performance-hostile setting(s) found; the prod profile sets the "
+                    + "recommended values", problems.size());
+        }
+    }
+
+    List<String> problems() {
+
+        List<String> problems = new ArrayList<>();
+
+        if (isTrue("spring.jpa.show-sql")) {
+            problems.add("spring.jpa.show-sql=true writes every SQL statement to stdout synchronously");
+        }
+        if (isTrue(HIBERNATE + "format_sql")) {
+            problems.add("hibernate.format_sql=true pretty-prints every logged statement");
+        }
+        if (isTrue(HIBERNATE + "generate_statistics")) {
+            problems.add("hibernate.generate_statistics=true collects statistics on every session");
+        }
+        for (String logger : List.of("org.hibernate.SQL", "org.hibernate.orm.jdbc.bind")) {
+            String level = environment.getProperty("logging.level." + logger, "");
+            if (level.equalsIgnoreCase("debug") || level.equalsIgnoreCase("trace")) {
+                problems.add("logging.level." + logger + "=" + level + " logs every statement");
+            }
+        }
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            problems.add("spring.jpa.open-in-view is not false: each request holds its "
+                    + "persistence context until the response is written");
+        }
+
+        String ddlAuto = environment.getProperty("spring.jpa.hibernate.ddl-auto", "none");
+        if (!ddlAuto.equalsIgnoreCase("none")) {
+            problems.add("spring.jpa.hibernate.ddl-auto=" + ddlAuto + " inspects the database "
+                    + "schema on every start; db/migration owns the schema");
+        }
+
+        int batchSize = environment.getProperty(HIBERNATE + "jdbc.batch_size", Integer.class, 0);
+        if (batchSize < 2) {
+            problems.add("hibernate.jdbc.batch_size is not set: every flushed update "
+                    + "and delete is its own round trip");
+        } else if (!isTrue(HIBERNATE + "order_inserts") || !isTrue(HIBERNATE + "order_updates")) {
+            problems.add("hibernate.order_inserts / order_updates are not both true: "
+                    + "interleaved statements break JDBC batches apart");
+        }
+
+        String url = environment.getProperty("spring.datasource.url", "");
+        if (url.startsWith("jdbc:mysql:")) {
+            for (String option : List.of("rewriteBatchedStatements", "cachePrepStmts")) {
+                if (!driverOption(url, option)) {
+                    problems.add("MySQL " + option + " is not enabled, in the URL or in "
+                            + DRIVER + option);
+                }
+            }
+        }
+        return problems;
+    }
+
+    private boolean isTrue(String key) {
+        return environment.getProperty(key, Boolean.class, false);
+    }
+
+    // Connector/J reads options from the URL query and from the pool's data source properties
+    private boolean driverOption(String url, String option) {
+        if (isTrue(DRIVER + option)) {
+            return true;
+        }
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return false;
+        }
+        String wanted = option.toLowerCase(Locale.ROOT) + "=true";
+        for (String pair : url.substring(query + 1).split("&")) {
+            if (pair.toLowerCase(Locale.ROOT).equals(wanted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.usermanagement.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Checks the virtual-thread setup at startup and, when asked, logs every time a
+// virtual thread stays pinned to its carrier (e.g. blocking inside synchronized)
+@Component
+public class VirtualThreadDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadDiagnostics.class);
+
+    private final boolean virtualThreads;
+    private final boolean pinningDiagnostics;
+    private final Duration pinningThreshold;
+
+    private RecordingStream recording;
+
+    public VirtualThreadDiagnostics(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                    @Value("${app.threads.pinning-diagnostics:false}") boolean pinningDiagnostics,
+                                    @Value("${app.threads.pinning-threshold:20ms}") Duration pinningThreshold) {
+        this.virtualThreads = virtualThreads;
+        this.pinningDiagnostics = pinningDiagnostics;
+        this.pinningThreshold = pinningThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        if (!virtualThreads) {
+            return;
+        }
+
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled=true has no effect on Java {}; "
+                    + "requests run on platform threads", Runtime.version().feature());
+            return;
+        }
+
+        log.info("Serving requests on virtual threads");
+
+        if (pinningDiagnostics) {
+            recording = new RecordingStream();
+            recording.enable("jdk.VirtualThreadPinned")
+                    .withThreshold(pinningThreshold)
+                    .withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", this::logPinned);
+            recording.startAsync();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private void logPinned(RecordedEvent event) {
+        StringBuilder frames = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> top = event.getStackTrace().getFrames();
+            top.stream().limit(8).forEach(frame -> frames.append("\n\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber()));
+        }
+        log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.audit.AuditAction;
+import com.example.usermanagement.audit.AuditLog;
+import com.example.usermanagement.audit.AuditRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    // AUDIT RECORDS in [from, to) (ISO-8601, default the last 24 hours), optionally of one
+    // action or subject, in the order they were written
+    @GetMapping
+    public List<AuditRecord> find(@RequestParam(required = false) Instant from,
+                                  @RequestParam(required = false) Instant to,
+                                  @RequestParam(required = false) AuditAction action,
+                                  @RequestParam(required = false) String subject,
+                                  @RequestParam(defaultValue = "100") int limit) {
+
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+
+        return auditLog.find(start.toEpochMilli(), end.toEpochMilli(),
+                record -> (action == null || record.action() == action)
+                        && (subject == null || subject.equalsIgnoreCase(record.subject())),
+                Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
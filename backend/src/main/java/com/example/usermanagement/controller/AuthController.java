@@ -1,92 +1,97 @@
 package com.example.usermanagement.controller;
 
+import com.example.usermanagement.audit.AuditAction;
+import com.example.usermanagement.audit.AuditLog;
 import com.example.usermanagement.dtos.requestDto.LoginRequestDto;
+import com.example.usermanagement.dtos.requestDto.RefreshRequestDto;
 import com.example.usermanagement.dtos.requestDto.RegisterRequestDto;
-import com.example.usermanagement.model.Role;
-import com.example.usermanagement.model.User;
-import com.example.usermanagement.repository.RoleRepository;
-import com.example.usermanagement.repository.UserRepository;
-import com.example.usermanagement.security.JwtService;
-import com.example.usermanagement.service.CustomUserDetailsService;
+import com.example.usermanagement.dtos.responseDto.LoginResponseDTO;
+import com.example.usermanagement.security.UserPrincipal;
+import com.example.usermanagement.service.AuthTokenService;
+import com.example.usermanagement.service.UserService;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
-
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
-    private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final UserService userService;
+    private final AuthTokenService authTokenService;
     private final AuthenticationManager authenticationManager;
-    private final CustomUserDetailsService userDetailsService;
+    private final AuditLog auditLog;
 
-    public AuthController(UserRepository userRepository,
-                          RoleRepository roleRepository,
-                          JwtService jwtService,
-                          PasswordEncoder passwordEncoder,
+    public AuthController(UserService userService,
+                          AuthTokenService authTokenService,
                           AuthenticationManager authenticationManager,
-                          CustomUserDetailsService userDetailsService) {
-        this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
-        this.jwtService = jwtService;
-        this.passwordEncoder = passwordEncoder;
+                          AuditLog auditLog) {
+        this.userService = userService;
+        this.authTokenService = authTokenService;
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
+        this.auditLog = auditLog;
     }
 
     // LOGIN
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequestDto request) {
+    @Timed("app.auth.login")
+    public ResponseEntity<LoginResponseDTO> login(@RequestBody LoginRequestDto request,
+                                                  HttpServletRequest httpRequest) {
+
+        // The only user lookup: the principal already holds the role and token version
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (AuthenticationException ex) {
+            auditLog.record(AuditAction.LOGIN_FAILED, null, request.getEmail(),
+                    httpRequest.getRemoteAddr() + " " + ex.getClass().getSimpleName());
+            throw ex;
+        }
+
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        auditLog.record(AuditAction.LOGIN, principal.getUsername(), principal.getUsername(),
+                httpRequest.getRemoteAddr());
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        return ResponseEntity.ok(authTokenService.issue(principal));
+    }
+
+    // REFRESH (rotates the refresh token, no password check)
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestBody RefreshRequestDto request) {
+        return ResponseEntity.ok(authTokenService.refresh(request.getRefreshToken()));
+    }
 
-        UserDetails userDetails =
-                userDetailsService.loadUserByUsername(request.getEmail());
+    // LOGOUT (revokes the bearer access token and, if given, the refresh token family)
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshRequestDto request) {
 
-        String role = userRepository
-                .findByEmail(request.getEmail())
-                .get()
-                .getRole()
-                .getName();
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ")
+                ? authHeader.substring(7)
+                : null;
 
-        String token = jwtService.generateToken(userDetails, role);
+        authTokenService.logout(accessToken,
+                request == null ? null : request.getRefreshToken());
 
-        return ResponseEntity.ok(Map.of("token", token));
+        return ResponseEntity.ok("Logged out successfully");
     }
 
     // REGISTER
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequestDto dto) {
-
-        if (userRepository.existsByEmail(dto.getEmail())) {
-            return ResponseEntity.badRequest().body("Email already exists");
-        }
-
-        Role role = roleRepository.findByName(dto.getRoleName())
-                .orElseThrow(() -> new RuntimeException("Role not found"));
-
-        User user = new User();
-        user.setName(dto.getName());
-        user.setEmail(dto.getEmail());
-        user.setPassword(passwordEncoder.encode(dto.getPassword()));
-        user.setRole(role);
-
-        userRepository.save(user);
-
+        userService.register(dto);
         return ResponseEntity.ok("User registered successfully");
     }
 }
@@ -0,0 +1,39 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.events.OutboxRelay;
+import com.example.usermanagement.events.SseEventSink;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private SseEventSink sseEventSink;
+
+    // CHANGES AFTER AN OFFSET (poll with the offset of the last event seen)
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<ChangeEventDTO> changes(@RequestParam(defaultValue = "0") long after,
+                                        @RequestParam(defaultValue = "500") int limit) {
+        return outboxRelay.eventsAfter(after, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    // LIVE CHANGES as Server-Sent Events (resumes from Last-Event-ID or ?after=)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) {
+        return sseEventSink.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
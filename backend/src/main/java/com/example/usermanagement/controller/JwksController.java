@@ -0,0 +1,48 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+// Public keys for verifying our tokens, for other services to fetch and cache
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // Must stay below app.security.jwt.publish-ahead so caches see a key before it signs
+    @Value("${app.security.jwt.jwks-max-age:5m}")
+    private Duration maxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> jwks(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+
+        String etag = keyRing.jwksEtag();
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        // Rendered once per key change, written as is
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(keyRing.jwks());
+    }
+}
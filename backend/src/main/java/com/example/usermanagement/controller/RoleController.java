@@ -1,26 +1,48 @@
 package com.example.usermanagement.controller;
 
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
 import com.example.usermanagement.model.Role;
+import com.example.usermanagement.security.Permission;
+import com.example.usermanagement.security.RequiresPermission;
+import com.example.usermanagement.service.ResponseCache;
 import com.example.usermanagement.service.RoleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/roles")
+@RequiresPermission(Permission.ROLES_READ)
 public class RoleController {
 
     @Autowired
     private RoleService roleService;
 
+    @Autowired
+    private ResponseCache responseCache;
+
+    // Body: {"name": "...", "permissions": ["USERS_READ", ...]}
     @PostMapping
-    public Role create(@RequestBody Role role) {
+    @RequiresPermission(Permission.ROLES_WRITE)
+    public RoleResponseDTO create(@RequestBody Role role) {
         return roleService.createRole(role);
     }
 
+    // Served pre-encoded; a matching If-None-Match gets 304
     @GetMapping
-    public List<Role> getAll() {
-        return roleService.getAllRoles();
+    public ResponseEntity<byte[]> getAll(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.roles().toResponseEntity(acceptEncoding);
+    }
+
+    // Replaces the role's permissions (the ADMIN role always keeps all of them)
+    @PutMapping("/{id}/permissions")
+    @RequiresPermission(Permission.ROLES_WRITE)
+    public RoleResponseDTO updatePermissions(@PathVariable Long id,
+                                             @RequestBody Set<Permission> permissions) {
+        return roleService.updatePermissions(id, permissions);
     }
 }
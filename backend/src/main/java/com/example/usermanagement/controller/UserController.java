@@ -1,56 +1,192 @@
 package com.example.usermanagement.controller;
 
 import com.example.usermanagement.dtos.requestDto.UserRequestDto;
+import com.example.usermanagement.dtos.requestDto.UserRolesRequestDto;
+import com.example.usermanagement.dtos.responseDto.BulkImportResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserPageResponseDTO;
 import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserRolesResponseDTO;
 import com.example.usermanagement.model.User;
+import com.example.usermanagement.security.Permission;
+import com.example.usermanagement.security.RequiresPermission;
+import com.example.usermanagement.service.ResponseCache;
+import com.example.usermanagement.service.UserImportService;
 import com.example.usermanagement.service.UserService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+// Reads need USERS_READ (also enforced for the whole path in SecurityConfig); writes say what they need
 @RestController
 @RequestMapping("/api/users")
+@RequiresPermission(Permission.USERS_READ)
 public class UserController {
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // CREATE USEr
     @PostMapping
+    @RequiresPermission(Permission.USERS_WRITE)
     public ResponseEntity<?> createUser(@RequestBody User user, @RequestParam String roleName) {
         return ResponseEntity.ok(userService.create(user, roleName));
     }
 
-    // GET ALL USERS
+    // BULK IMPORT (JSON array)
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @RequiresPermission(Permission.USERS_IMPORT)
+    public BulkImportResponseDTO importUsers(@RequestBody List<UserRequestDto> users) {
+        return userImportService.importUsers(users);
+    }
+
+    // BULK IMPORT (CSV upload: name,email,password,roleName)
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @RequiresPermission(Permission.USERS_IMPORT)
+    public BulkImportResponseDTO importUsersCsv(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return userImportService.importCsv(reader);
+        }
+    }
+
+    // GET ALL USERS (one page, pass nextCursor back as cursor for the next one)
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAll());
+    public ResponseEntity<UserPageResponseDTO> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(userService.getPage(cursor, limit));
+    }
+
+    // GET ALL USERS as newline-delimited JSON (Accept: application/x-ndjson)
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            userService.streamAll(writer::write);
+        }
+    }
+
+    // SEARCH USERS (q = prefix of name or email, role, sort=name|email|id[,desc], keyset pages)
+    @GetMapping("/search")
+    public UserPageResponseDTO search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return userService.search(q, role, sort, cursor, limit);
     }
 
-    // GET USER BY ID
+    // AUTOCOMPLETE (typeahead on name, any word of the name, or email)
+    @GetMapping("/autocomplete")
+    public List<UserResponseDTO> autocomplete(@RequestParam String q,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        return userService.autocomplete(q, limit);
+    }
+
+    // GET USER BY ID (ETag = version; Spring answers a matching If-None-Match with 304 and no body)
     @GetMapping("/{id}")
-    public User getById(@PathVariable Long id) {
-        return userService.getById(id);
+    public ResponseEntity<byte[]> getById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.user(id).toResponseEntity(acceptEncoding);
     }
 
-    // UPDATE USER
+    // UPDATE USER (If-Match: "<ETag from GET>" -> 412 when someone else changed it first)
     @PutMapping("/{id}")
-    public User update(@PathVariable Long id,
-                       @RequestBody UserRequestDto dto) {
+    @RequiresPermission(Permission.USERS_WRITE)
+    public ResponseEntity<UserResponseDTO> update(@PathVariable Long id,
+                       @RequestBody UserRequestDto dto,
+                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         User user = new User();
         user.setName(dto.getName());
         user.setEmail(dto.getEmail());
         user.setPassword(dto.getPassword());
 
-        return userService.update(id, user, dto.getRoleName());
+        UserResponseDTO updated =
+                userService.update(id, user, dto.getRoleName(), expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(updated)).body(updated);
+    }
+
+    // ROLES OF A USER (primary, additional and the effective permissions)
+    @GetMapping("/{id}/roles")
+    public UserRolesResponseDTO getRoles(@PathVariable Long id) {
+        return userService.getRoles(id);
+    }
+
+    // REPLACE ADDITIONAL ROLES (granting roles needs both user and role write access)
+    @PutMapping("/{id}/roles")
+    @RequiresPermission({Permission.USERS_WRITE, Permission.ROLES_WRITE})
+    public UserRolesResponseDTO updateRoles(@PathVariable Long id,
+                                            @RequestBody UserRolesRequestDto dto) {
+        return userService.updateRoles(id, dto.getAdditionalRoles());
+    }
+
+    private static String eTag(UserResponseDTO user) {
+        return "\"" + user.getVersion() + "\"";
+    }
+
+    // null for no header or "*"; otherwise the versions of the listed tags, any of which may
+    // match (RFC 9110). If-Match compares strongly, so weak or foreign tags name no version.
+    // The tag of the gzip-encoded GET ("<version>-gzip") names the same version.
+    private static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (ETag tag : ETag.parse(ifMatch)) {
+            if (tag.isWildcard()) {
+                return null;
+            }
+            if (tag.weak()) {
+                continue;
+            }
+            String version = tag.tag();
+            if (version.endsWith("-gzip")) {
+                version = version.substring(0, version.length() - "-gzip".length());
+            }
+            try {
+                versions.add(Long.parseLong(version));
+            } catch (NumberFormatException ex) {
+                // Not one of ours; it cannot match
+            }
+        }
+        return versions;
     }
 
     //  DELETE USER
     @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.USERS_DELETE)
     public String delete(@PathVariable Long id) {
         userService.delete(id);
         return "User deleted successfully";
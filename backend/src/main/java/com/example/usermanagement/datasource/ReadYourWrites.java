@@ -0,0 +1,33 @@
+package com.example.usermanagement.datasource;
+
+import com.example.usermanagement.cache.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Keys (a client, a user) written to within the last stickiness window. Reads for them
+// go to the primary until the replicas have most likely caught up. No-op without routing.
+@Component
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final BoundedCache<String, Boolean> recent;
+
+    public ReadYourWrites(@Value("${app.datasource.routing.enabled:false}") boolean enabled,
+                          @Value("${app.datasource.routing.stickiness:5s}") Duration stickiness,
+                          @Value("${app.datasource.routing.max-sticky-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.recent = new BoundedCache<>(maxKeys, stickiness);
+    }
+
+    public void written(String key) {
+        if (enabled) {
+            recent.put(key, Boolean.TRUE);
+        }
+    }
+
+    public boolean isRecent(String key) {
+        return enabled && recent.get(key) != null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.usermanagement.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Opens the RoutingContext request scope. A client that wrote is kept on the primary for
+// its next requests too, e.g. register then login. Clients are told apart by address,
+// which may group several behind one proxy; that only sends more reads to the primary.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String client = "client:" + request.getRemoteAddr();
+        RoutingContext.beginRequest(readYourWrites.isRecent(client));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (RoutingContext.endRequest()) {
+                readYourWrites.written(client);
+            }
+        }
+    }
+}
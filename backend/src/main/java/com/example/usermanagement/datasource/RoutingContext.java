@@ -0,0 +1,58 @@
+package com.example.usermanagement.datasource;
+
+import java.util.function.Supplier;
+
+// Per-thread hints for ReplicaRoutingDataSource. Inside a request scope (opened by
+// ReadYourWritesFilter) it remembers that the request wrote, so the request's later
+// reads see that write; onPrimary() pins a block of code to the primary.
+public final class RoutingContext {
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private RoutingContext() {
+    }
+
+    // sticky: the client wrote moments ago, so even its first read goes to the primary
+    public static void beginRequest(boolean sticky) {
+        State state = STATE.get();
+        state.inRequest = true;
+        state.sticky = sticky;
+        state.wrote = false;
+    }
+
+    // true when the request wrote to the primary
+    public static boolean endRequest() {
+        boolean wrote = STATE.get().wrote;
+        STATE.remove();
+        return wrote;
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        State state = STATE.get();
+        state.pinned++;
+        try {
+            return action.get();
+        } finally {
+            state.pinned--;
+        }
+    }
+
+    static boolean usePrimary() {
+        State state = STATE.get();
+        return state.pinned > 0 || state.sticky || state.wrote;
+    }
+
+    static void wrote() {
+        State state = STATE.get();
+        if (state.inRequest) {
+            state.wrote = true;
+        }
+    }
+
+    private static final class State {
+        boolean inRequest;
+        boolean sticky;
+        boolean wrote;
+        int pinned;
+    }
+}
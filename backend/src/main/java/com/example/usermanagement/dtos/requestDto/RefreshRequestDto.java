@@ -0,0 +1,7 @@
+package com.example.usermanagement.dtos.requestDto;
+
+public class RefreshRequestDto {
+    private String refreshToken;
+
+    public String getRefreshToken() { return refreshToken; }
+}
@@ -0,0 +1,11 @@
+package com.example.usermanagement.dtos.requestDto;
+
+import java.util.List;
+
+public class UserRolesRequestDto {
+    // Names of the roles held besides the primary one; replaces the current set
+    private List<String> additionalRoles;
+
+    public List<String> getAdditionalRoles() { return additionalRoles; }
+    public void setAdditionalRoles(List<String> additionalRoles) { this.additionalRoles = additionalRoles; }
+}
@@ -0,0 +1,24 @@
+package com.example.usermanagement.dtos.responseDto;
+
+import java.util.List;
+
+public class BulkImportResponseDTO {
+
+    private final int total;
+    private final int created;
+    private final int failed;
+    private final List<BulkImportRowResultDTO> rows;
+
+    public BulkImportResponseDTO(int total, int created, int failed,
+                                 List<BulkImportRowResultDTO> rows) {
+        this.total = total;
+        this.created = created;
+        this.failed = failed;
+        this.rows = rows;
+    }
+
+    public int getTotal() { return total; }
+    public int getCreated() { return created; }
+    public int getFailed() { return failed; }
+    public List<BulkImportRowResultDTO> getRows() { return rows; }
+}
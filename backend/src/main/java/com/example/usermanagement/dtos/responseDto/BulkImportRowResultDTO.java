@@ -0,0 +1,21 @@
+package com.example.usermanagement.dtos.responseDto;
+
+public class BulkImportRowResultDTO {
+
+    private final int row;
+    private final String email;
+    private final String status;
+    private final String message;
+
+    public BulkImportRowResultDTO(int row, String email, String status, String message) {
+        this.row = row;
+        this.email = email;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getRow() { return row; }
+    public String getEmail() { return email; }
+    public String getStatus() { return status; }
+    public String getMessage() { return message; }
+}
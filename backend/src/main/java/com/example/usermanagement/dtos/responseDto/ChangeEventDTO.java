@@ -0,0 +1,32 @@
+package com.example.usermanagement.dtos.responseDto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+// What sinks and GET /api/events consumers receive for one outbox row
+public class ChangeEventDTO {
+
+    private final long offset;
+    private final String type;
+    private final Long aggregateId;
+    private final long createdAt;
+    private final String payload;
+
+    public ChangeEventDTO(long offset, String type, Long aggregateId, long createdAt, String payload) {
+        this.offset = offset;
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.createdAt = createdAt;
+        this.payload = payload;
+    }
+
+    public long getOffset() { return offset; }
+    public String getType() { return type; }
+    public Long getAggregateId() { return aggregateId; }
+
+    // Epoch millis
+    public long getCreatedAt() { return createdAt; }
+
+    // Stored JSON, written through as is
+    @JsonRawValue
+    public String getPayload() { return payload; }
+}
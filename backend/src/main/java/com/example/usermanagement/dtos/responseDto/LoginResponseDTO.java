@@ -2,12 +2,32 @@ package com.example.usermanagement.dtos.responseDto;
 
 public class LoginResponseDTO {
     private final String token;
+    private final String refreshToken;
+    private final String tokenType;
+    private final long expiresIn;
 
-    public LoginResponseDTO(String token) {
+    public LoginResponseDTO(String token, String refreshToken, long expiresIn) {
         this.token = token;
+        this.refreshToken = refreshToken;
+        this.tokenType = "Bearer";
+        this.expiresIn = expiresIn;
     }
 
     public String getToken() {
         return token;
     }
+
+    // Single use: POST /api/auth/refresh returns a new one with every new access token
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    // Access token lifetime in seconds
+    public long getExpiresIn() {
+        return expiresIn;
+    }
 }
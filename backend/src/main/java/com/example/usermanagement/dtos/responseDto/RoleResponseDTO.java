@@ -0,0 +1,30 @@
+package com.example.usermanagement.dtos.responseDto;
+
+import com.example.usermanagement.security.Permission;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Set;
+
+public class RoleResponseDTO {
+
+    private final Long id;
+    private final String name;
+    private final long permissionMask;
+
+    public RoleResponseDTO(Long id, String name) {
+        this(id, name, 0L);
+    }
+
+    public RoleResponseDTO(Long id, String name, long permissionMask) {
+        this.id = id;
+        this.name = name;
+        this.permissionMask = permissionMask;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public Set<Permission> getPermissions() { return Permission.fromMask(permissionMask); }
+
+    @JsonIgnore
+    public long getPermissionMask() { return permissionMask; }
+}
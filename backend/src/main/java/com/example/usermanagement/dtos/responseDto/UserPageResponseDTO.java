@@ -0,0 +1,19 @@
+package com.example.usermanagement.dtos.responseDto;
+
+import java.util.List;
+
+public class UserPageResponseDTO {
+
+    private final List<UserResponseDTO> items;
+    private final String nextCursor;
+
+    public UserPageResponseDTO(List<UserResponseDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserResponseDTO> getItems() { return items; }
+
+    // null when this is the last page
+    public String getNextCursor() { return nextCursor; }
+}
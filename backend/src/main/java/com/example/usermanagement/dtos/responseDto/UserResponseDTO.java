@@ -1,21 +1,33 @@
 package com.example.usermanagement.dtos.responseDto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class UserResponseDTO {
 
     private Long id;
     private String name;
     private String email;
     private String roleName;
+    private Long version;
 
     public UserResponseDTO(Long id, String name, String email, String roleName) {
+        this(id, name, email, roleName, null);
+    }
+
+    public UserResponseDTO(Long id, String name, String email, String roleName, Long version) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.roleName = roleName;
+        this.version = version;
     }
 
     public Long getId() { return id; }
     public String getName() { return name; }
     public String getEmail() { return email; }
     public String getRoleName() { return roleName; }
+
+    // Sent as the ETag header, not in the body; null on list and search results
+    @JsonIgnore
+    public Long getVersion() { return version; }
 }
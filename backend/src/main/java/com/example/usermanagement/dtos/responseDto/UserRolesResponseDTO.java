@@ -0,0 +1,29 @@
+package com.example.usermanagement.dtos.responseDto;
+
+import com.example.usermanagement.security.Permission;
+
+import java.util.List;
+import java.util.Set;
+
+public class UserRolesResponseDTO {
+
+    private final Long id;
+    private final String role;
+    private final List<String> additionalRoles;
+    private final Set<Permission> permissions;
+
+    public UserRolesResponseDTO(Long id, String role, List<String> additionalRoles,
+                                Set<Permission> permissions) {
+        this.id = id;
+        this.role = role;
+        this.additionalRoles = additionalRoles;
+        this.permissions = permissions;
+    }
+
+    public Long getId() { return id; }
+    public String getRole() { return role; }
+    public List<String> getAdditionalRoles() { return additionalRoles; }
+
+    // Effective permissions: the union over the primary and additional roles
+    public Set<Permission> getPermissions() { return permissions; }
+}
@@ -0,0 +1,23 @@
+package com.example.usermanagement.events;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// In-process consumers: @EventListener methods taking a ChangeEventDTO, called on the relay thread
+@Component
+public class ApplicationEventSink implements EventSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    public ApplicationEventSink(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void publish(List<ChangeEventDTO> events) {
+        events.forEach(publisher::publishEvent);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.usermanagement.events;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.model.OutboxEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Writes change events into outbox_events inside the caller's transaction, so an event
+// exists exactly when the change it describes was committed. OutboxRelay publishes them.
+@Component
+public class EventOutbox {
+
+    public static final String USER_CREATED = "USER_CREATED";
+    public static final String USER_UPDATED = "USER_UPDATED";
+    public static final String USER_DELETED = "USER_DELETED";
+    public static final String ROLE_CREATED = "ROLE_CREATED";
+    public static final String ROLE_UPDATED = "ROLE_UPDATED";
+
+    // Added to a USER_UPDATED payload when the email changed
+    public static final String PREVIOUS_EMAIL = "previousEmail";
+
+    private static final String INSERT_SQL =
+            "insert into outbox_events (type, aggregate_id, payload, created_at) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public EventOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String type, Long aggregateId, Object payload) {
+        jdbcTemplate.update(INSERT_SQL, type, aggregateId,
+                objectMapper.writeValueAsString(payload), System.currentTimeMillis());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void recordAll(String type, List<T> payloads, Function<T, Long> aggregateId) {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.batchUpdate(INSERT_SQL, payloads, payloads.size(), (ps, payload) -> {
+            ps.setString(1, type);
+            ps.setLong(2, aggregateId.apply(payload));
+            ps.setString(3, objectMapper.writeValueAsString(payload));
+            ps.setLong(4, now);
+        });
+    }
+
+    // The emails a user event names: the current one and, after a change, the previous one
+    public static List<String> userEmails(ObjectMapper objectMapper, ChangeEventDTO event) {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        List<String> emails = new ArrayList<>(2);
+        for (String field : List.of("email", PREVIOUS_EMAIL)) {
+            JsonNode email = payload.get(field);
+            if (email != null && email.isString()) {
+                emails.add(email.asString());
+            }
+        }
+        return emails;
+    }
+
+    // Moves an event whose id the relay had to skip to the end of the outbox, so that every
+    // consumer resuming from an offset sees it; false when another instance moved it first
+    @Transactional
+    public boolean reappend(OutboxEvent event) {
+        if (jdbcTemplate.update("delete from outbox_events where id = ?", event.getId()) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(INSERT_SQL, event.getType(), event.getAggregateId(),
+                event.getPayload(), event.getCreatedAt());
+        return true;
+    }
+
+    public static ChangeEventDTO toEvent(OutboxEvent event) {
+        return new ChangeEventDTO(event.getId(), event.getType(), event.getAggregateId(),
+                event.getCreatedAt(), event.getPayload());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.usermanagement.events;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+
+import java.util.List;
+
+// Receives relayed outbox events in offset order, at least once
+public interface EventSink {
+
+    // Offset of the last event this sink already holds, to resume after a restart; -1 if it keeps none
+    default long lastOffset() {
+        return -1;
+    }
+
+    // Called once, before the first publish, with the offset the relay starts after
+    default void start(long offset) {
+    }
+
+    // Runs on the relay thread, which waits for it
+    void publish(List<ChangeEventDTO> events);
+}
@@ -0,0 +1,119 @@
+package com.example.usermanagement.events;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends every event as one JSON line. The offset of the last line is where the relay
+// resumes after a restart, so the file receives every event at least once.
+@Component
+@ConditionalOnProperty(name = "app.events.file.enabled", havingValue = "true")
+public class FileEventSink implements EventSink {
+
+    // Events are a few hundred bytes; the last complete line is always within this tail
+    private static final int TAIL = 64 * 1024;
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+    private long lastOffset = -1;
+
+    public FileEventSink(@Value("${app.events.file.path:data/user-events.ndjson}") Path file,
+                         ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        boolean tornLine = readTail();
+
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (tornLine) {
+            // A crash mid-append left a partial line; start the next one on its own
+            writer.newLine();
+        }
+    }
+
+    @Override
+    public long lastOffset() {
+        return lastOffset;
+    }
+
+    @Override
+    public void publish(List<ChangeEventDTO> events) {
+        try {
+            for (ChangeEventDTO event : events) {
+                if (event.getOffset() <= lastOffset) {
+                    continue;
+                }
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+                lastOffset = event.getOffset();
+            }
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write event log " + file, ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    // Sets lastOffset from the last complete line; true when the file does not end in a newline
+    private boolean readTail() throws IOException {
+
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        String tail;
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, TAIL));
+            channel.position(size - buffer.capacity());
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // keep reading
+            }
+            tail = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        }
+
+        String[] lines = tail.split("\n");
+        for (int i = lines.length - 1; i >= 0; i--) {
+            try {
+                JsonNode offset = objectMapper.readTree(lines[i]).get("offset");
+                if (offset != null && offset.isNumber()) {
+                    lastOffset = offset.asLong();
+                    break;
+                }
+            } catch (JacksonException ex) {
+                // Torn or cut-off line, try the one before
+            }
+        }
+        return !tail.isEmpty() && !tail.endsWith("\n");
+    }
+}
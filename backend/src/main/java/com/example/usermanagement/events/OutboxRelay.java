@@ -0,0 +1,248 @@
+package com.example.usermanagement.events;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.model.OutboxEvent;
+import com.example.usermanagement.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Polls outbox_events and hands new events to every EventSink in batches. Each instance
+// relays on its own, from an in-memory position: where the sinks left off at startup,
+// else the newest event.
+//
+// Ids are assigned at insert but become visible at commit, so a smaller id can appear
+// after a larger one. The relay waits for a hole in the ids until the event after it is
+// gap-timeout old, then moves on. created_at is the inserting node's clock, not the commit
+// time, so that does not make the hole final: it may be a rollback or a transaction still
+// running (a slow import batch, a lock wait). Skipped ids are re-read every pass until
+// retention or max-holes drops them. One that appears is moved to the end of the outbox
+// under a new id and relayed from there: sinks, SSE subscribers and pollers all resume
+// from an offset and would never look behind it.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final long PURGE_INTERVAL = TimeUnit.HOURS.toMillis(1);
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private final OutboxEventRepository repository;
+    private final EventOutbox eventOutbox;
+    private final List<EventSink> sinks;
+    private final Counter published;
+    private final boolean enabled;
+    private final Duration interval;
+    private final int batchSize;
+    private final long gapTimeout;
+    private final long retention;
+    private final int maxHoles;
+
+    // Skipped ids, oldest first, with when they were skipped; only the relay thread uses it
+    private final LinkedHashMap<Long, Long> holes = new LinkedHashMap<>();
+    private volatile int holeCount;
+    private volatile long position;
+    private long lastPurge;
+    private ScheduledExecutorService scheduler;
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       EventOutbox eventOutbox,
+                       List<EventSink> sinks,
+                       MeterRegistry registry,
+                       @Value("${app.events.relay.enabled:true}") boolean enabled,
+                       @Value("${app.events.relay.interval:200ms}") Duration interval,
+                       @Value("${app.events.relay.batch-size:500}") int batchSize,
+                       @Value("${app.events.relay.gap-timeout:10s}") Duration gapTimeout,
+                       @Value("${app.events.relay.max-holes:100000}") int maxHoles,
+                       @Value("${app.events.retention:7d}") Duration retention) {
+        this.repository = repository;
+        this.eventOutbox = eventOutbox;
+        this.sinks = sinks;
+        this.published = registry.counter("app.events.published");
+        this.enabled = enabled;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout.toMillis();
+        this.retention = retention.toMillis();
+        this.maxHoles = maxHoles;
+    }
+
+    @PostConstruct
+    public void start() {
+
+        long resume = sinks.stream()
+                .mapToLong(EventSink::lastOffset)
+                .filter(offset -> offset >= 0)
+                .min()
+                .orElse(-1);
+        position = resume >= 0 ? resume : repository.findMaxId();
+        sinks.forEach(sink -> sink.start(position));
+
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-relay");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::relayQuietly,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Offset of the last event handed to the sinks
+    public long position() {
+        return position;
+    }
+
+    // Skipped ids still watched for a late commit
+    public int holeCount() {
+        return holeCount;
+    }
+
+    // Events after the given offset that have already been relayed, for consumers that poll
+    public List<ChangeEventDTO> eventsAfter(long offset, int limit) {
+        return repository.findBetween(offset, position, Limit.of(limit))
+                .stream()
+                .map(EventOutbox::toEvent)
+                .toList();
+    }
+
+    // One pass: relays everything that is ready, batch by batch
+    public void relay() {
+
+        relayHoles();
+
+        while (true) {
+            List<OutboxEvent> rows = repository.findAfter(position, Limit.of(batchSize));
+            long settled = System.currentTimeMillis() - gapTimeout;
+
+            List<ChangeEventDTO> ready = new ArrayList<>(rows.size());
+            long next = position;
+            for (OutboxEvent row : rows) {
+                if (row.getId() != next + 1 && row.getCreatedAt() > settled) {
+                    break;
+                }
+                skip(next + 1, row.getId());
+                ready.add(EventOutbox.toEvent(row));
+                next = row.getId();
+            }
+
+            if (ready.isEmpty()) {
+                break;
+            }
+
+            // Moved first: a sink replaying from the database must never fall behind what it is sent
+            position = next;
+            publish(ready, next);
+
+            if (ready.size() < batchSize) {
+                break;
+            }
+        }
+
+        purge();
+    }
+
+    // Skipped ids that have committed since, moved past the position so this pass relays them
+    private void relayHoles() {
+
+        if (holes.isEmpty()) {
+            return;
+        }
+        long expired = System.currentTimeMillis() - retention;
+        holes.values().removeIf(skippedAt -> skippedAt < expired);
+
+        List<Long> ids = new ArrayList<>(holes.keySet());
+        int moved = 0;
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size()));
+            for (OutboxEvent row : repository.findByIds(chunk)) {
+                holes.remove(row.getId());
+                // Otherwise another instance moved it, and it arrives under its new id
+                if (eventOutbox.reappend(row)) {
+                    moved++;
+                }
+            }
+        }
+        holeCount = holes.size();
+
+        if (moved > 0) {
+            log.debug("Moved {} events committed after their ids were skipped to the end of the outbox", moved);
+        }
+    }
+
+    // Ids from (inclusive) to to (exclusive) were not there when the relay moved past them
+    private void skip(long from, long to) {
+
+        if (from >= to) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (long id = Math.max(from, to - maxHoles); id < to; id++) {
+            holes.put(id, now);
+        }
+        if (holes.size() > maxHoles) {
+            log.warn("More than {} skipped outbox ids; no longer watching the oldest", maxHoles);
+            var oldest = holes.keySet().iterator();
+            while (holes.size() > maxHoles) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+        holeCount = holes.size();
+    }
+
+    private void publish(List<ChangeEventDTO> events, long offset) {
+        for (EventSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (RuntimeException ex) {
+                log.warn("Event sink {} failed at offset {}",
+                        sink.getClass().getSimpleName(), offset, ex);
+            }
+        }
+        published.increment(events.size());
+    }
+
+    private void purge() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < PURGE_INTERVAL) {
+            return;
+        }
+        lastPurge = now;
+        int deleted = repository.deleteOlderThan(now - retention, position);
+        if (deleted > 0) {
+            log.debug("Purged {} outbox events", deleted);
+        }
+    }
+
+    private void relayQuietly() {
+        try {
+            relay();
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay failed", ex);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.usermanagement.events;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.model.OutboxEvent;
+import com.example.usermanagement.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// GET /api/events subscribers. A subscriber first replays what it missed from outbox_events,
+// then switches to the live events the relay hands over. Writes run on a small sender pool
+// so a slow client never stalls the relay; one that falls max-pending events behind is
+// disconnected and resumes from its Last-Event-ID.
+@Component
+public class SseEventSink implements EventSink {
+
+    private static final int REPLAY_BATCH = 500;
+
+    private final OutboxEventRepository repository;
+    private final long timeout;
+    private final int maxPending;
+    private final ExecutorService senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Offset of the last event the relay handed over; replays stop here
+    private volatile long relayed;
+
+    public SseEventSink(OutboxEventRepository repository,
+                        @Value("${app.events.sse.timeout:30m}") Duration timeout,
+                        @Value("${app.events.sse.max-pending:10000}") int maxPending,
+                        @Value("${app.events.sse.threads:4}") int threads) {
+        this.repository = repository;
+        this.timeout = timeout.toMillis();
+        this.maxPending = maxPending;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "sse-sender-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // after: offset of the last event the client has, null for live events only
+    public SseEmitter subscribe(Long after) {
+
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter, after == null ? relayed : after);
+
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        // Completing here ends the response normally; the client reconnects with Last-Event-ID
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+        emitter.onError(ex -> subscriber.close());
+
+        subscriber.schedule();
+        return emitter;
+    }
+
+    public int size() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void start(long offset) {
+        relayed = offset;
+    }
+
+    @Override
+    public void publish(List<ChangeEventDTO> events) {
+        relayed = events.get(events.size() - 1).getOffset();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(events);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<ChangeEventDTO> pending = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // Only touched by the draining sender
+        private long lastId;
+
+        // Guarded by lock
+        private boolean catchingUp = true;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, long after) {
+            this.emitter = emitter;
+            this.lastId = after;
+        }
+
+        void offer(List<ChangeEventDTO> events) {
+            lock.lock();
+            try {
+                // While catching up, the replay reads these from the table
+                if (catchingUp || closed) {
+                    return;
+                }
+                if (pending.size() + events.size() > maxPending) {
+                    closed = true;
+                    pending.clear();
+                    emitter.complete();
+                    return;
+                }
+                pending.addAll(events);
+            } finally {
+                lock.unlock();
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            try {
+                if (catchingUp) {
+                    replay();
+                }
+                while (true) {
+                    List<ChangeEventDTO> batch;
+                    lock.lock();
+                    try {
+                        if (pending.isEmpty() || closed) {
+                            scheduled.set(false);
+                            return;
+                        }
+                        batch = new ArrayList<>(pending);
+                        pending.clear();
+                    } finally {
+                        lock.unlock();
+                    }
+                    send(batch);
+                }
+            } catch (IOException | RuntimeException ex) {
+                close();
+                emitter.completeWithError(ex);
+            }
+        }
+
+        private void replay() throws IOException {
+            while (true) {
+                long upTo = relayed;
+                List<OutboxEvent> rows = repository.findBetween(lastId, upTo, Limit.of(REPLAY_BATCH));
+                send(rows.stream().map(EventOutbox::toEvent).toList());
+                if (rows.size() == REPLAY_BATCH) {
+                    continue;
+                }
+
+                // The relay moves `relayed` before it offers; checked under the lock,
+                // an unchanged value means every later event will be offered to us
+                lock.lock();
+                try {
+                    lastId = Math.max(lastId, upTo);
+                    if (relayed == upTo) {
+                        catchingUp = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private void send(List<ChangeEventDTO> events) throws IOException {
+            for (ChangeEventDTO event : events) {
+                if (event.getOffset() <= lastId) {
+                    continue;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.getOffset()))
+                        .name(event.getType())
+                        .data(event, MediaType.APPLICATION_JSON));
+                lastId = event.getOffset();
+            }
+        }
+    }
+}
@@ -2,12 +2,16 @@ package com.example.usermanagement.exception;
 import com.example.usermanagement.dtos.responseDto.ErrorResponse;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.BindException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -23,10 +27,25 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry registry;
+
+    public GlobalExceptionHandler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // app.errors{status, exception}: one series per failure branch below
+    private void count(HttpStatus status, Class<?> exception) {
+        registry.counter("app.errors",
+                "status", String.valueOf(status.value()),
+                "exception", exception.getSimpleName()).increment();
+    }
+
     // 🔹 400 - @Valid validation
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidation(MethodArgumentNotValidException ex) {
 
+        count(HttpStatus.BAD_REQUEST, ex.getClass());
+
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors()
                 .forEach(err -> errors.put(err.getField(), err.getDefaultMessage()));
@@ -38,6 +57,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(BindException.class)
     public ResponseEntity<?> handleBind(BindException ex) {
 
+        count(HttpStatus.BAD_REQUEST, ex.getClass());
+
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors()
                 .forEach(err -> errors.put(err.getField(), err.getDefaultMessage()));
@@ -50,6 +71,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleConstraintViolation(
             ConstraintViolationException ex) {
 
+        count(HttpStatus.BAD_REQUEST, ex.getClass());
+
         return new ResponseEntity<>(
                 new ErrorResponse(400, "Bad Request", ex.getMessage()),
                 HttpStatus.BAD_REQUEST
@@ -60,6 +83,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse> handleInvalidJson() {
 
+        count(HttpStatus.BAD_REQUEST, HttpMessageNotReadableException.class);
+
         return new ResponseEntity<>(
                 new ErrorResponse(400, "Bad Request", "Invalid JSON request body"),
                 HttpStatus.BAD_REQUEST
@@ -70,16 +95,32 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponse> handleTypeMismatch() {
 
+        count(HttpStatus.BAD_REQUEST, MethodArgumentTypeMismatchException.class);
+
         return new ResponseEntity<>(
                 new ErrorResponse(400, "Bad Request", "Invalid parameter type"),
                 HttpStatus.BAD_REQUEST
         );
     }
 
+    // 🔹 400 - Business rule violated
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ErrorResponse> handleBusiness(BusinessException ex) {
+
+        count(HttpStatus.BAD_REQUEST, ex.getClass());
+
+        return new ResponseEntity<>(
+                new ErrorResponse(400, "Bad Request", ex.getMessage()),
+                HttpStatus.BAD_REQUEST
+        );
+    }
+
     // 🔹 401 - JWT expired
     @ExceptionHandler(ExpiredJwtException.class)
     public ResponseEntity<ErrorResponse> handleExpiredJwt() {
 
+        count(HttpStatus.UNAUTHORIZED, ExpiredJwtException.class);
+
         return new ResponseEntity<>(
                 new ErrorResponse(401, "Unauthorized", "JWT token expired. Please login again."),
                 HttpStatus.UNAUTHORIZED
@@ -90,6 +131,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(JwtException.class)
     public ResponseEntity<ErrorResponse> handleJwtException() {
 
+        count(HttpStatus.UNAUTHORIZED, JwtException.class);
+
         return new ResponseEntity<>(
                 new ErrorResponse(401, "Unauthorized", "Invalid JWT token"),
                 HttpStatus.UNAUTHORIZED
@@ -101,16 +144,32 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleUserNotFound(
             UsernameNotFoundException ex) {
 
+        count(HttpStatus.UNAUTHORIZED, ex.getClass());
+
         return new ResponseEntity<>(
                 new ErrorResponse(401, "Unauthorized", "User not found. Please login again."),
                 HttpStatus.UNAUTHORIZED
         );
     }
 
+    // 🔹 401 - Wrong email or password
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ErrorResponse> handleAuthentication() {
+
+        count(HttpStatus.UNAUTHORIZED, AuthenticationException.class);
+
+        return new ResponseEntity<>(
+                new ErrorResponse(401, "Unauthorized", "Invalid email or password"),
+                HttpStatus.UNAUTHORIZED
+        );
+    }
+
     // 🔹 403 - Access denied
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleAccessDenied() {
 
+        count(HttpStatus.FORBIDDEN, AccessDeniedException.class);
+
         return new ResponseEntity<>(
                 new ErrorResponse(403, "Forbidden", "Access denied. You do not have permission."),
                 HttpStatus.FORBIDDEN
@@ -122,6 +181,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleResourceNotFound(
             ResourceNotFoundException ex) {
 
+        count(HttpStatus.NOT_FOUND, ex.getClass());
+
         return new ResponseEntity<>(
                 new ErrorResponse(404, "Not Found", ex.getMessage()),
                 HttpStatus.NOT_FOUND
@@ -132,6 +193,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(NoHandlerFoundException.class)
     public ResponseEntity<ErrorResponse> handleNoHandler() {
 
+        count(HttpStatus.NOT_FOUND, NoHandlerFoundException.class);
+
         return new ResponseEntity<>(
                 new ErrorResponse(404, "Not Found", "API endpoint not found"),
                 HttpStatus.NOT_FOUND
@@ -142,6 +205,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<ErrorResponse> handleMethodNotAllowed() {
 
+        count(HttpStatus.METHOD_NOT_ALLOWED, HttpRequestMethodNotSupportedException.class);
+
         return new ResponseEntity<>(
                 new ErrorResponse(405, "Method Not Allowed", "HTTP method not allowed"),
                 HttpStatus.METHOD_NOT_ALLOWED
@@ -152,16 +217,59 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse> handleDataIntegrity() {
 
+        count(HttpStatus.CONFLICT, DataIntegrityViolationException.class);
+
         return new ResponseEntity<>(
                 new ErrorResponse(409, "Conflict", "Duplicate or invalid data"),
                 HttpStatus.CONFLICT
         );
     }
 
+    // 🔹 409 - Row changed between our read and our write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock() {
+
+        count(HttpStatus.CONFLICT, OptimisticLockingFailureException.class);
+
+        return new ResponseEntity<>(
+                new ErrorResponse(409, "Conflict",
+                        "The resource was modified concurrently. Reload it and try again."),
+                HttpStatus.CONFLICT
+        );
+    }
+
+    // 🔹 412 - If-Match does not match the current version
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(
+            PreconditionFailedException ex) {
+
+        count(HttpStatus.PRECONDITION_FAILED, ex.getClass());
+
+        return new ResponseEntity<>(
+                new ErrorResponse(412, "Precondition Failed", ex.getMessage()),
+                HttpStatus.PRECONDITION_FAILED
+        );
+    }
+
+    // 🔹 503 - Password hashing pool saturated
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleHashingCapacity(
+            HashingCapacityExceededException ex) {
+
+        count(HttpStatus.SERVICE_UNAVAILABLE, ex.getClass());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(503, "Service Unavailable",
+                        "Server is busy. Please try again later."));
+    }
+
     // 🔹 500 - Fallback
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneric(Exception ex) {
 
+        count(HttpStatus.INTERNAL_SERVER_ERROR, ex.getClass());
+
         return new ResponseEntity<>(
                 new ErrorResponse(500, "Internal Server Error",
                         "Something went wrong. Please try again."),
@@ -0,0 +1,130 @@
+package com.example.usermanagement.metrics;
+
+import com.example.usermanagement.audit.AuditLog;
+import com.example.usermanagement.cache.BoundedCache;
+import com.example.usermanagement.events.OutboxRelay;
+import com.example.usermanagement.events.SseEventSink;
+import com.example.usermanagement.security.PasswordHashing;
+import com.example.usermanagement.security.TokenDenylist;
+import com.example.usermanagement.service.CustomUserDetailsService;
+import com.example.usermanagement.service.EmailFilter;
+import com.example.usermanagement.service.ResponseCache;
+import com.example.usermanagement.service.UserAutocomplete;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.stereotype.Component;
+
+// User and response caches, token denylist, autocomplete index, email filter, event relay, audit log and password hashing pool, the caches and the pool under Micrometer's usual cache.* and executor.* names
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final PasswordHashing passwordHashing;
+    private final TokenDenylist tokenDenylist;
+    private final UserAutocomplete autocomplete;
+    private final EmailFilter emailFilter;
+    private final OutboxRelay outboxRelay;
+    private final SseEventSink sseEventSink;
+    private final AuditLog auditLog;
+    private final ResponseCache responseCache;
+
+    public ApplicationMetrics(CustomUserDetailsService userDetailsService,
+                              PasswordHashing passwordHashing,
+                              TokenDenylist tokenDenylist,
+                              UserAutocomplete autocomplete,
+                              EmailFilter emailFilter,
+                              OutboxRelay outboxRelay,
+                              SseEventSink sseEventSink,
+                              AuditLog auditLog,
+                              ResponseCache responseCache) {
+        this.userDetailsService = userDetailsService;
+        this.passwordHashing = passwordHashing;
+        this.tokenDenylist = tokenDenylist;
+        this.autocomplete = autocomplete;
+        this.emailFilter = emailFilter;
+        this.outboxRelay = outboxRelay;
+        this.sseEventSink = sseEventSink;
+        this.auditLog = auditLog;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        bindCache(registry, userDetailsService.getCache(), "users");
+        bindCache(registry, responseCache.getUserCache(), "user-responses");
+
+        Gauge.builder("app.auth.denylist.size", tokenDenylist, TokenDenylist::size)
+                .register(registry);
+
+        Gauge.builder("app.users.autocomplete.size", autocomplete, UserAutocomplete::size)
+                .register(registry);
+
+        // Checks answered from memory (negative) or by a query that found the email or not
+        Gauge.builder("app.users.email-filter.bits", emailFilter, EmailFilter::bitSize)
+                .register(registry);
+        Gauge.builder("app.users.email-filter.capacity", emailFilter, EmailFilter::capacity)
+                .register(registry);
+        Gauge.builder("app.users.email-filter.fpp", emailFilter, EmailFilter::configuredFpp)
+                .tag("kind", "configured")
+                .register(registry);
+        Gauge.builder("app.users.email-filter.fpp", emailFilter, EmailFilter::expectedFpp)
+                .tag("kind", "expected")
+                .register(registry);
+        FunctionCounter.builder("app.users.email-filter.checks", emailFilter, EmailFilter::negativeCount)
+                .tag("result", "negative")
+                .register(registry);
+        FunctionCounter.builder("app.users.email-filter.checks", emailFilter, EmailFilter::positiveCount)
+                .tag("result", "positive")
+                .register(registry);
+        FunctionCounter.builder("app.users.email-filter.checks", emailFilter, EmailFilter::falsePositiveCount)
+                .tag("result", "false_positive")
+                .register(registry);
+
+        Gauge.builder("app.events.relay.position", outboxRelay, OutboxRelay::position)
+                .register(registry);
+        Gauge.builder("app.events.relay.holes", outboxRelay, OutboxRelay::holeCount)
+                .register(registry);
+        Gauge.builder("app.events.sse.subscribers", sseEventSink, SseEventSink::size)
+                .register(registry);
+
+        // Written to a segment, dropped on a full buffer, or lost to a write error
+        Gauge.builder("app.audit.pending", auditLog, AuditLog::pending)
+                .register(registry);
+        Gauge.builder("app.audit.capacity", auditLog, AuditLog::capacity)
+                .register(registry);
+        FunctionCounter.builder("app.audit.records", auditLog, AuditLog::writtenCount)
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("app.audit.records", auditLog, AuditLog::droppedCount)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder("app.audit.records", auditLog, AuditLog::failedCount)
+                .tag("result", "failed")
+                .register(registry);
+
+        new ExecutorServiceMetrics(passwordHashing.getExecutor(), "password-hash", Tags.empty())
+                .bindTo(registry);
+    }
+
+    private static void bindCache(MeterRegistry registry, BoundedCache<?, ?> cache, String name) {
+        Tags tags = Tags.of("cache", name);
+
+        Gauge.builder("cache.size", cache, BoundedCache::size)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, BoundedCache::hitCount)
+                .tags(tags).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, BoundedCache::missCount)
+                .tags(tags).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedCache::evictionCount)
+                .tags(tags)
+                .register(registry);
+    }
+}
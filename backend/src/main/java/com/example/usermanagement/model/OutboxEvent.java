@@ -0,0 +1,44 @@
+package com.example.usermanagement.model;
+
+import jakarta.persistence.*;
+
+// One row per user or role change, written in the transaction that made the change.
+// The id is the event offset consumers resume from.
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_created_at", columnList = "created_at"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // USER_CREATED, USER_UPDATED, USER_DELETED, ROLE_CREATED
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    // JSON document describing the entity after the change
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    // Epoch millis
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    // getters
+    public Long getId() { return id; }
+    public String getType() { return type; }
+    public Long getAggregateId() { return aggregateId; }
+    public String getPayload() { return payload; }
+    public long getCreatedAt() { return createdAt; }
+
+    // setters
+    public void setId(Long id) { this.id = id; }
+    public void setType(String type) { this.type = type; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+}
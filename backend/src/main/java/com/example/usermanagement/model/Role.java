@@ -1,7 +1,10 @@
 package com.example.usermanagement.model;
 
+import com.example.usermanagement.security.Permission;
 import jakarta.persistence.*;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
@@ -19,6 +22,13 @@ public class Role {
     @JsonIgnore
     private List<User> users;
 
+    // Stored by name; RoleRegistry compiles them into one mask per role
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "role_permissions", joinColumns = @JoinColumn(name = "role_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "permission", nullable = false, length = 32)
+    private Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+
     // ===== Getters =====
     public Long getId() {
         return id; }
@@ -26,6 +36,8 @@ public class Role {
         return name; }
     public List<User> getUsers() {
         return users; }
+    public Set<Permission> getPermissions() {
+        return permissions; }
 
     // ===== Setters =====
     public void setId(Long id) {
@@ -34,4 +46,6 @@ public class Role {
         this.name = name; }
     public void setUsers(List<User> users) {
         this.users = users; }
+    public void setPermissions(Set<Permission> permissions) {
+        this.permissions = permissions; }
 }
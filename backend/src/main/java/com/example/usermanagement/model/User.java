@@ -1,10 +1,20 @@
 package com.example.usermanagement.model;
 
 import jakarta.persistence.*;
+import java.util.HashSet;
+import java.util.Set;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
+// Indexes back GET /api/users/search: email prefixes use the unique index, name prefixes and
+// name ordering use (name, id), role filters use the (role_id, ...) pairs
 @Table(name = "users",
-        uniqueConstraints = @UniqueConstraint(columnNames = "email"))
+        uniqueConstraints = @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+        indexes = {
+                @Index(name = "idx_users_name_id", columnList = "name, id"),
+                @Index(name = "idx_users_role_name_id", columnList = "role_id, name, id"),
+                @Index(name = "idx_users_role_email", columnList = "role_id, email")
+        })
 public class User {
 
     @Id
@@ -14,22 +24,44 @@ public class User {
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
     private String password;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
 
+    // Held in addition to role; permissions are the union over all of them
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "user_roles",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "role_id"))
+    @JsonIgnore
+    private Set<Role> additionalRoles = new HashSet<>();
+
+    // Bumped whenever issued tokens must stop being accepted
+    @Column(name = "token_version", nullable = false)
+    @JsonIgnore
+    private long tokenVersion;
+
+    // Optimistic lock; also the ETag of GET /api/users/{id}
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private long version;
+
     // getters
     public Long getId() { return id; }
     public String getName() { return name; }
     public String getEmail() { return email; }
     public String getPassword() { return password; }
     public Role getRole() { return role; }
+    public Set<Role> getAdditionalRoles() { return additionalRoles; }
+    public long getTokenVersion() { return tokenVersion; }
+    public long getVersion() { return version; }
 
     // setters
     public void setId(Long id) { this.id = id; }
@@ -37,4 +69,7 @@ public class User {
     public void setEmail(String email) { this.email = email; }
     public void setPassword(String password) { this.password = password; }
     public void setRole(Role role) { this.role = role; }
+    public void setAdditionalRoles(Set<Role> additionalRoles) { this.additionalRoles = additionalRoles; }
+    public void setTokenVersion(long tokenVersion) { this.tokenVersion = tokenVersion; }
+    public void setVersion(long version) { this.version = version; }
 }
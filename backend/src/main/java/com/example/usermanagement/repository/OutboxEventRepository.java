@@ -0,0 +1,35 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e from OutboxEvent e where e.id > :afterId order by e.id")
+    List<OutboxEvent> findAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select e from OutboxEvent e where e.id > :afterId and e.id <= :upToId order by e.id")
+    List<OutboxEvent> findBetween(@Param("afterId") long afterId,
+                                  @Param("upToId") long upToId,
+                                  Limit limit);
+
+    @Query("select e from OutboxEvent e where e.id in :ids order by e.id")
+    List<OutboxEvent> findByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e")
+    long findMaxId();
+
+    // Only events already relayed are purged
+    @Modifying
+    @Transactional
+    @Query("delete from OutboxEvent e where e.createdAt < :before and e.id <= :upToId")
+    int deleteOlderThan(@Param("before") long before, @Param("upToId") long upToId);
+}
@@ -2,11 +2,17 @@ package com.example.usermanagement.repository;
 
 import com.example.usermanagement.model.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
     Optional<Role> findByNameIgnoreCase(String name);
 
+    // Roles with their permissions in one query, for RoleRegistry
+    @Query("select distinct r from Role r left join fetch r.permissions")
+    List<Role> findAllWithPermissions();
+
 }
@@ -0,0 +1,11 @@
+package com.example.usermanagement.repository;
+
+// What authentication needs from a user row, loaded without hydrating the entity.
+// One row per additional role (additionalRoleId is null when there are none).
+public record UserCredentials(String email,
+                              String password,
+                              String roleName,
+                              long tokenVersion,
+                              Long roleId,
+                              Long additionalRoleId) {
+}
@@ -1,13 +1,70 @@
 package com.example.usermanagement.repository;
 
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
 import com.example.usermanagement.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserSearchRepository {
 
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Rehash on login; keeps the token version so existing tokens stay valid
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    // Set-based duplicate check for bulk imports
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.example.usermanagement.dtos.responseDto.UserResponseDTO(" +
+            "u.id, u.name, u.email, r.name, u.version) " +
+            "from User u join u.role r where u.id = :id")
+    Optional<UserResponseDTO> findViewById(@Param("id") Long id);
+
+    @Query("select new com.example.usermanagement.dtos.responseDto.UserResponseDTO(" +
+            "u.id, u.name, u.email, r.name) " +
+            "from User u join u.role r where u.email in :emails")
+    List<UserResponseDTO> findViewsByEmails(@Param("emails") Collection<String> emails);
+
+    // Still one round trip: the additional roles come back as extra rows
+    @Query("select new com.example.usermanagement.repository.UserCredentials(" +
+            "u.email, u.password, r.name, u.tokenVersion, r.id, x.id) " +
+            "from User u join u.role r left join u.additionalRoles x where u.email = :email")
+    List<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    // Keyset page: rows after the given id, ordered by the primary key
+    @Query("select new com.example.usermanagement.dtos.responseDto.UserResponseDTO(" +
+            "u.id, u.name, u.email, r.name) " +
+            "from User u join u.role r " +
+            "where u.id > :afterId order by u.id")
+    List<UserResponseDTO> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    // Forward-only stream of every user; must be consumed inside a transaction and closed
+    @Query("select new com.example.usermanagement.dtos.responseDto.UserResponseDTO(" +
+            "u.id, u.name, u.email, r.name) " +
+            "from User u join u.role r order by u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserResponseDTO> streamAll();
+
+    // Every email, for the in-memory email filter; same rules as streamAll
+    @Query("select u.email from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<String> streamEmails();
 }
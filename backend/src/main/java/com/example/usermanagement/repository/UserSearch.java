@@ -0,0 +1,28 @@
+package com.example.usermanagement.repository;
+
+// One page of GET /api/users/search. Results are ordered by (sort column, id); the page
+// starts after the row (afterValue, afterId) of the previous page, or at the top when afterId is null.
+public record UserSearch(String prefix,
+                         Long roleId,
+                         Sort sort,
+                         boolean descending,
+                         String afterValue,
+                         Long afterId,
+                         int limit) {
+
+    public enum Sort {
+        ID("id"),
+        NAME("name"),
+        EMAIL("email");
+
+        private final String attribute;
+
+        Sort(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String attribute() {
+            return attribute;
+        }
+    }
+}
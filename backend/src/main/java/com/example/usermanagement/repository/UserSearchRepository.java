@@ -0,0 +1,10 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+
+import java.util.List;
+
+public interface UserSearchRepository {
+
+    List<UserResponseDTO> search(UserSearch search);
+}
@@ -0,0 +1,97 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.model.Role;
+import com.example.usermanagement.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Built with the Criteria API because every filter is optional. Predicates stay on plain
+// columns (no lower()) so MySQL can use the indexes declared on User; its default
+// collation already makes LIKE and ordering case-insensitive.
+class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    private static final char ESCAPE = '!';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserResponseDTO> search(UserSearch search) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponseDTO> query = cb.createQuery(UserResponseDTO.class);
+        Root<User> user = query.from(User.class);
+        Join<User, Role> role = user.join("role");
+
+        query.select(cb.construct(UserResponseDTO.class,
+                user.get("id"), user.get("name"), user.get("email"), role.get("name")));
+
+        List<Predicate> where = new ArrayList<>();
+
+        if (search.prefix() != null) {
+            String pattern = escape(search.prefix()) + "%";
+            where.add(cb.or(
+                    cb.like(user.get("name"), pattern, ESCAPE),
+                    cb.like(user.get("email"), pattern, ESCAPE)));
+        }
+
+        if (search.roleId() != null) {
+            // Compares the foreign key column; the join is only for the role name
+            where.add(cb.equal(user.get("role").get("id"), search.roleId()));
+        }
+
+        Path<Long> id = user.get("id");
+
+        if (search.sort() == UserSearch.Sort.ID) {
+            if (search.afterId() != null) {
+                where.add(search.descending()
+                        ? cb.lessThan(id, search.afterId())
+                        : cb.greaterThan(id, search.afterId()));
+            }
+            query.orderBy(search.descending() ? cb.desc(id) : cb.asc(id));
+        } else {
+            Path<String> column = user.get(search.sort().attribute());
+            if (search.afterId() != null) {
+                // (column, id) > (afterValue, afterId), spelled out for the optimizer
+                where.add(search.descending()
+                        ? cb.or(cb.lessThan(column, search.afterValue()),
+                                cb.and(cb.equal(column, search.afterValue()),
+                                        cb.lessThan(id, search.afterId())))
+                        : cb.or(cb.greaterThan(column, search.afterValue()),
+                                cb.and(cb.equal(column, search.afterValue()),
+                                        cb.greaterThan(id, search.afterId()))));
+            }
+            query.orderBy(search.descending()
+                    ? List.of(cb.desc(column), cb.desc(id))
+                    : List.of(cb.asc(column), cb.asc(id)));
+        }
+
+        query.where(where.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(search.limit())
+                .getResultList();
+    }
+
+    private static String escape(String prefix) {
+        StringBuilder escaped = new StringBuilder(prefix.length() + 4);
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.usermanagement.security;
+
+import java.util.Map;
+
+// Where TokenDenylist keeps its entries so that they survive a restart
+public interface DenylistStore {
+
+    // Every entry still valid at the given time, by token or family id
+    Map<String, Long> load(long now);
+
+    void save(String id, long expiresAt);
+}
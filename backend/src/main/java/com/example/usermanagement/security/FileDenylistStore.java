@@ -0,0 +1,118 @@
+package com.example.usermanagement.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Append-only log of "id expiresAt" lines. Expired lines are dropped when the
+// file is loaded at startup, so it only ever holds about one refresh TTL of entries.
+@Component
+@ConditionalOnProperty(name = "app.security.denylist.store", havingValue = "file")
+public class FileDenylistStore implements DenylistStore {
+
+    private final Path file;
+    private final ReentrantLock lock = new ReentrantLock();
+    private BufferedWriter writer;
+
+    public FileDenylistStore(@Value("${app.security.denylist.file:data/token-denylist.log}") Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public Map<String, Long> load(long now) {
+
+        lock.lock();
+        try {
+            Map<String, Long> entries = new HashMap<>();
+
+            if (Files.exists(file)) {
+                List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                for (String line : lines) {
+                    int space = line.indexOf(' ');
+                    long expiresAt = space > 0 ? parseExpiry(line.substring(space + 1)) : 0L;
+                    if (expiresAt > now) {
+                        entries.put(line.substring(0, space), expiresAt);
+                    }
+                }
+            }
+
+            compact(entries);
+            return entries;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read token denylist " + file, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void save(String id, long expiresAt) {
+
+        lock.lock();
+        try {
+            writer.write(id);
+            writer.write(' ');
+            writer.write(Long.toString(expiresAt));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write token denylist " + file, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 0 for a malformed line, e.g. one torn by a crash while appending
+    private static long parseExpiry(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return 0L;
+        }
+    }
+
+    // Rewrites the file with the live entries only, then keeps appending to it
+    private void compact(Map<String, Long> entries) throws IOException {
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                out.write(entry.getKey() + ' ' + entry.getValue());
+                out.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.usermanagement.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Default: nothing is persisted, a restart forgets logouts and revoked refresh tokens
+@Component
+@ConditionalOnProperty(name = "app.security.denylist.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryDenylistStore implements DenylistStore {
+
+    @Override
+    public Map<String, Long> load(long now) {
+        return Map.of();
+    }
+
+    @Override
+    public void save(String id, long expiresAt) {
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.usermanagement.security;
 
 import com.example.usermanagement.service.CustomUserDetailsService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,17 +20,38 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocations tokenRevocations;
+    private final TokenDenylist tokenDenylist;
+    private final boolean stateless;
+    private final MeterRegistry registry;
+    private final Timer verifyTimer;
+
+    // One authority list per role name, shared by all stateless requests
+    private final ConcurrentHashMap<String, List<GrantedAuthority>> authoritiesByRole =
+            new ConcurrentHashMap<>();
 
     public JwtAuthFilter(JwtService jwtService,
-                         CustomUserDetailsService userDetailsService) {
+                         CustomUserDetailsService userDetailsService,
+                         TokenRevocations tokenRevocations,
+                         TokenDenylist tokenDenylist,
+                         MeterRegistry registry,
+                         @Value("${app.security.stateless-auth:false}") boolean stateless) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocations = tokenRevocations;
+        this.tokenDenylist = tokenDenylist;
+        this.stateless = stateless;
+        this.registry = registry;
+        this.verifyTimer = Timer.builder("app.auth.token.verify").register(registry);
     }
 
     @Override
@@ -40,13 +68,31 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String email = jwtService.extractUsername(token);
+        TokenClaims claims = verify(token);
+
+        // Refresh tokens only work at /api/auth/refresh; logged-out tokens not at all
+        if (claims.isRefreshToken() || tokenDenylist.isDenied(claims.getId())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String email = claims.getSubject();
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            UserDetails userDetails;
+
+            if (stateless
+                    && claims.getPermissions() != TokenClaims.NO_PERMISSIONS
+                    && !tokenRevocations.isRevoked(email, claims.getIssuedAt())) {
+                // Signature and expiry are verified, trust the claims without a DB lookup
+                userDetails = new UserPrincipal(email, "", authorities(claims.getRole()),
+                        claims.getTokenVersion(), claims.getPermissions());
+            } else {
+                userDetails = userDetailsService.loadUserByUsername(email);
+            }
 
-            if (jwtService.validateToken(token, userDetails)) {
+            if (jwtService.validateToken(claims, userDetails)) {
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
@@ -65,4 +111,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private TokenClaims verify(String token) {
+
+        long start = System.nanoTime();
+        try {
+            return jwtService.verify(token);
+        } catch (JwtException ex) {
+            // Expired tokens are routine; a rise in the others means forged or corrupted tokens
+            registry.counter("app.auth.jwt.failures",
+                    "reason", ex instanceof ExpiredJwtException ? "expired" : "invalid",
+                    "exception", ex.getClass().getSimpleName()).increment();
+            throw ex;
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<GrantedAuthority> authorities(String role) {
+        if (role == null) {
+            return List.of();
+        }
+        return authoritiesByRole.computeIfAbsent(role,
+                r -> List.of(new SimpleGrantedAuthority("ROLE_" + r)));
+    }
 }
@@ -0,0 +1,426 @@
+package com.example.usermanagement.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Asymmetric signing keys. One key signs, older ones still verify tokens they signed
+// (selected by the kid header), and all public keys are published as a JWKS.
+// With a keys directory, instances sharing it sign and verify with the same keys.
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private static final long RELOAD_INTERVAL = 5_000;
+
+    private final SignatureAlgorithm algorithm;
+    private final Path keysDir;
+    private final long rotationInterval;
+    private final long publishAhead;
+    private final long retention;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private List<SigningKey> keys = List.of();
+    private volatile KeySet current;
+    private volatile long lastReload;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public JwtKeyRing(@Value("${app.security.jwt.algorithm:RS256}") String algorithm,
+                      @Value("${app.security.jwt.keys-dir:}") String keysDir,
+                      @Value("${app.security.jwt.rotation-interval:7d}") Duration rotationInterval,
+                      @Value("${app.security.jwt.publish-ahead:10m}") Duration publishAhead,
+                      @Value("${app.security.jwt.refresh-ttl:7d}") Duration retention) {
+        this(algorithm, keysDir, rotationInterval, publishAhead, retention, Clock.systemUTC());
+    }
+
+    // Tests move the clock through the rotation windows
+    JwtKeyRing(String algorithm, String keysDir, Duration rotationInterval,
+               Duration publishAhead, Duration retention, Clock clock) {
+
+        this.algorithm = SignatureAlgorithm.forName(algorithm);
+        if (this.algorithm != SignatureAlgorithm.RS256 && this.algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalArgumentException("Unsupported JWT algorithm: " + algorithm);
+        }
+        this.keysDir = keysDir.isBlank() ? null : Path.of(keysDir);
+        this.rotationInterval = rotationInterval.toMillis();
+        this.publishAhead = publishAhead.toMillis();
+        // A retired key must outlive the longest token it may have signed
+        this.retention = retention.toMillis();
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+
+        if (keysDir == null) {
+            log.warn("app.security.jwt.keys-dir is not set: signing keys are kept in memory "
+                    + "and every issued token becomes invalid on restart");
+        }
+        rotate();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwt-key-rotation");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::rotateQuietly, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public SigningKey signingKey() {
+        return current.active;
+    }
+
+    // Called by the JwtParser for every token
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+
+        String kid = header.getKeyId();
+        if (kid == null) {
+            throw new JwtException("Token has no key id");
+        }
+
+        PublicKey key = current.publicKeys.get(kid);
+        if (key == null) {
+            // Another instance may have rotated; the rotation thread rereads the shared
+            // directory, never the request thread, and rarely, so that made-up key ids
+            // cannot turn into a file system scan per request
+            if (keysDir != null) {
+                requestReload();
+            }
+            throw new JwtException("Unknown key id: " + kid);
+        }
+        return key;
+    }
+
+    public byte[] jwks() {
+        return current.jwks;
+    }
+
+    public String jwksEtag() {
+        return current.etag;
+    }
+
+    // Reloads the shared keys, adds a key when the newest one is due for rotation,
+    // drops keys nothing valid can be signed with anymore, then publishes the result
+    public void rotate() {
+
+        lock.lock();
+        try {
+            long now = clock.millis();
+            List<SigningKey> loaded = keysDir == null ? new ArrayList<>(keys) : readKeys();
+            loaded.sort(Comparator.comparingLong(SigningKey::createdAt));
+
+            if (loaded.isEmpty()
+                    || loaded.get(loaded.size() - 1).createdAt() + rotationInterval <= now) {
+                SigningKey key = generate(now);
+                if (keysDir != null) {
+                    writeKey(key);
+                }
+                loaded.add(key);
+                log.info("Generated JWT signing key {} ({})", key.id(), key.algorithm().getValue());
+            }
+
+            List<SigningKey> live = retire(loaded, now);
+            keys = List.copyOf(live);
+            current = new KeySet(active(live, now), live);
+            lastReload = now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void requestReload() {
+        if (clock.millis() - lastReload > RELOAD_INTERVAL
+                && reloadRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                try {
+                    rotateQuietly();
+                } finally {
+                    reloadRequested.set(false);
+                }
+            });
+        }
+    }
+
+    private void rotateQuietly() {
+        try {
+            rotate();
+        } catch (RuntimeException ex) {
+            log.error("JWT key rotation failed, keeping the current keys", ex);
+        }
+    }
+
+    // The newest key published long enough for verifiers to have fetched it;
+    // right after the very first key is created there is nothing else to use
+    private SigningKey active(List<SigningKey> sorted, long now) {
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            if (sorted.get(i).createdAt() + publishAhead <= now) {
+                return sorted.get(i);
+            }
+        }
+        return sorted.get(0);
+    }
+
+    // A key stopped signing when its successor became active; once the longest
+    // token lifetime has passed since then, no valid token can refer to it
+    private List<SigningKey> retire(List<SigningKey> sorted, long now) {
+
+        List<SigningKey> live = new ArrayList<>(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            SigningKey key = sorted.get(i);
+            boolean expired = i + 1 < sorted.size()
+                    && sorted.get(i + 1).createdAt() + publishAhead + retention <= now;
+            if (expired) {
+                deleteKey(key);
+            } else {
+                live.add(key);
+            }
+        }
+        return live;
+    }
+
+    private SigningKey generate(long now) {
+        try {
+            KeyPairGenerator generator;
+            if (algorithm == SignatureAlgorithm.ES256) {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+            }
+            KeyPair pair = generator.generateKeyPair();
+            return new SigningKey(keyId(pair.getPublic()), algorithm,
+                    pair.getPrivate(), pair.getPublic(), now);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot generate a " + algorithm.getValue() + " key", ex);
+        }
+    }
+
+    // base64url of the first 12 bytes of SHA-256 over the encoded public key
+    private static String keyId(PublicKey key) throws GeneralSecurityException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+    }
+
+    // One <kid>.key properties file per key
+    private List<SigningKey> readKeys() {
+
+        List<SigningKey> loaded = new ArrayList<>();
+        try {
+            Files.createDirectories(keysDir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(keysDir, "*.key")) {
+                for (Path file : files) {
+                    loaded.add(readKey(file));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read JWT keys from " + keysDir, ex);
+        }
+        return loaded;
+    }
+
+    private static SigningKey readKey(Path file) throws IOException {
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        try {
+            SignatureAlgorithm algorithm = SignatureAlgorithm.forName(properties.getProperty("alg"));
+            KeyFactory factory = KeyFactory.getInstance(algorithm.getFamilyName().equals("ECDSA") ? "EC" : "RSA");
+            Base64.Decoder base64 = Base64.getDecoder();
+
+            return new SigningKey(
+                    properties.getProperty("kid"),
+                    algorithm,
+                    factory.generatePrivate(new PKCS8EncodedKeySpec(
+                            base64.decode(properties.getProperty("private")))),
+                    factory.generatePublic(new X509EncodedKeySpec(
+                            base64.decode(properties.getProperty("public")))),
+                    Long.parseLong(properties.getProperty("created")));
+        } catch (GeneralSecurityException | RuntimeException ex) {
+            throw new IllegalStateException("Invalid JWT key file " + file, ex);
+        }
+    }
+
+    private void writeKey(SigningKey key) {
+
+        Properties properties = new Properties();
+        properties.setProperty("kid", key.id());
+        properties.setProperty("alg", key.algorithm().getValue());
+        properties.setProperty("created", Long.toString(key.createdAt()));
+        properties.setProperty("private", Base64.getEncoder().encodeToString(key.privateKey().getEncoded()));
+        properties.setProperty("public", Base64.getEncoder().encodeToString(key.publicKey().getEncoded()));
+
+        try {
+            Files.createDirectories(keysDir);
+            Path tmp = Files.createTempFile(keysDir, key.id(), ".tmp");
+            try {
+                Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ex) {
+                // not a POSIX file system
+            }
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            // Other instances only ever see complete files
+            Files.move(tmp, keysDir.resolve(key.id() + ".key"), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write JWT key to " + keysDir, ex);
+        }
+    }
+
+    private void deleteKey(SigningKey key) {
+        if (keysDir == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(keysDir.resolve(key.id() + ".key"));
+            log.info("Retired JWT signing key {}", key.id());
+        } catch (IOException ex) {
+            log.warn("Cannot delete retired JWT key {}", key.id(), ex);
+        }
+    }
+
+    public record SigningKey(String id,
+                             SignatureAlgorithm algorithm,
+                             PrivateKey privateKey,
+                             PublicKey publicKey,
+                             long createdAt) {
+    }
+
+    // Immutable, swapped as a whole; the JWKS document is rendered once per change
+    private static final class KeySet {
+
+        final SigningKey active;
+        final Map<String, PublicKey> publicKeys;
+        final byte[] jwks;
+        final String etag;
+
+        KeySet(SigningKey active, List<SigningKey> keys) {
+            this.active = active;
+
+            Map<String, PublicKey> byId = new HashMap<>();
+            StringBuilder json = new StringBuilder("{\"keys\":[");
+            for (int i = 0; i < keys.size(); i++) {
+                SigningKey key = keys.get(i);
+                byId.put(key.id(), key.publicKey());
+                if (i > 0) {
+                    json.append(',');
+                }
+                appendJwk(json, key);
+            }
+            json.append("]}");
+
+            this.publicKeys = Map.copyOf(byId);
+            this.jwks = json.toString().getBytes(StandardCharsets.UTF_8);
+            this.etag = etag(jwks);
+        }
+
+        private static void appendJwk(StringBuilder json, SigningKey key) {
+
+            json.append("{\"kid\":\"").append(key.id())
+                    .append("\",\"use\":\"sig\",\"alg\":\"").append(key.algorithm().getValue())
+                    .append('"');
+
+            if (key.publicKey() instanceof ECPublicKey ec) {
+                json.append(",\"kty\":\"EC\",\"crv\":\"P-256\"")
+                        .append(",\"x\":\"").append(base64Url(ec.getW().getAffineX(), 32))
+                        .append("\",\"y\":\"").append(base64Url(ec.getW().getAffineY(), 32))
+                        .append('"');
+            } else if (key.publicKey() instanceof RSAPublicKey rsa) {
+                json.append(",\"kty\":\"RSA\"")
+                        .append(",\"n\":\"").append(base64Url(rsa.getModulus(), 0))
+                        .append("\",\"e\":\"").append(base64Url(rsa.getPublicExponent(), 0))
+                        .append('"');
+            }
+            json.append('}');
+        }
+
+        // Unsigned big-endian, left-padded to length when length > 0 (RFC 7518)
+        private static String base64Url(BigInteger value, int length) {
+            byte[] bytes = value.toByteArray();
+            if (bytes.length > 1 && bytes[0] == 0) {
+                bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+            }
+            if (length > bytes.length) {
+                byte[] padded = new byte[length];
+                System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+                bytes = padded;
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        }
+
+        private static String etag(byte[] body) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                return "\"" + Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -1,68 +1,137 @@
 package com.example.usermanagement.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
-    private static final String SECRET =
-            "mysecretkeymysecretkeymysecretkey12";
+    private final JwtKeyRing keyRing;
 
-    private static final long EXPIRATION =
-            1000 * 60 * 60; // 1 hour
+    // Immutable and thread-safe, so built once; the key ring picks the key by kid
+    private final JwtParser parser;
 
-    private Key getKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    private final long accessTtl;
+    private final long refreshTtl;
+
+    public JwtService(JwtKeyRing keyRing,
+                      @Value("${app.security.jwt.access-ttl:15m}") Duration accessTtl,
+                      @Value("${app.security.jwt.refresh-ttl:7d}") Duration refreshTtl) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
+        this.accessTtl = accessTtl.toMillis();
+        this.refreshTtl = refreshTtl.toMillis();
     }
 
     public String generateToken(UserDetails userDetails, String role) {
+        return generateToken(userDetails, role, 0L);
+    }
 
-        return Jwts.builder()
+    public String generateToken(UserDetails userDetails, String role, long tokenVersion) {
+        long permissions = userDetails instanceof UserPrincipal principal
+                ? principal.getPermissions()
+                : 0L;
+        return generateToken(userDetails, role, tokenVersion, permissions);
+    }
+
+    // perms: the Permission bits as one number, so stateless checks need no lookup
+    public String generateToken(UserDetails userDetails, String role,
+                                long tokenVersion, long permissions) {
+
+        long now = System.currentTimeMillis();
+
+        return builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
+                .claim("typ", TokenClaims.ACCESS)
                 .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(
-                        new Date(System.currentTimeMillis() + EXPIRATION)
-                )
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .claim("perms", permissions)
+                .claim("ver", tokenVersion)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTtl))
+                .compact();
+    }
+
+    // Long-lived, only accepted by /api/auth/refresh. Every rotation keeps the family
+    // so a replayed refresh token can revoke all of its successors.
+    public String generateRefreshToken(UserDetails userDetails, long tokenVersion, String family) {
+
+        long now = System.currentTimeMillis();
+
+        return builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(userDetails.getUsername())
+                .claim("typ", TokenClaims.REFRESH)
+                .claim("fam", family)
+                .claim("ver", tokenVersion)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + refreshTtl))
                 .compact();
     }
 
+    // Signed with the active key; the kid header tells verifiers which public key to use
+    private JwtBuilder builder() {
+        JwtKeyRing.SigningKey key = keyRing.signingKey();
+        return Jwts.builder()
+                .setHeaderParam("kid", key.id())
+                .signWith(key.privateKey(), key.algorithm());
+    }
+
+    public long getAccessTtl() {
+        return accessTtl;
+    }
+
+    public long getRefreshTtl() {
+        return refreshTtl;
+    }
+
+    // Parses the token and checks its signature exactly once
+    public TokenClaims verify(String token) {
+        return TokenClaims.from(extractAllClaims(token));
+    }
+
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        return verify(token).getSubject();
     }
 
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return verify(token).getRole();
     }
 
     public boolean validateToken(String token,
                                  UserDetails userDetails) {
 
-        final String username = extractUsername(token);
+        return validateToken(verify(token), userDetails);
+    }
+
+    public boolean validateToken(TokenClaims claims,
+                                 UserDetails userDetails) {
 
-        return (username.equals(userDetails.getUsername())
-                && !isTokenExpired(token));
+        return (claims.getSubject().equals(userDetails.getUsername())
+                && !claims.isExpired()
+                && hasCurrentVersion(claims, userDetails));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token)
-                .getExpiration()
-                .before(new Date());
+    private boolean hasCurrentVersion(TokenClaims claims,
+                                      UserDetails userDetails) {
+
+        return !(userDetails instanceof UserPrincipal principal)
+                || principal.getTokenVersion() == claims.getTokenVersion();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,122 @@
+package com.example.usermanagement.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Exponential back-off per account after repeated failed logins. Each entry is one
+// AtomicLong: failure count in the top 16 bits, time of the last failure (ms) below.
+public class LoginBackoff {
+
+    private static final int TIME_BITS = 48;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final int MAX_FAILURES = 0xFFFF;
+
+    private final ConcurrentHashMap<String, AtomicLong> failures = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final int freeAttempts;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final int maxEntries;
+
+    public LoginBackoff(int freeAttempts, Duration initialDelay, Duration maxDelay, int maxEntries) {
+        this.freeAttempts = freeAttempts;
+        this.initialDelay = initialDelay.toMillis();
+        this.maxDelay = maxDelay.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    // 0 when a login attempt is allowed now, otherwise the milliseconds to wait
+    public long blockedFor(String key) {
+        AtomicLong entry = failures.get(key);
+        if (entry == null) {
+            return 0L;
+        }
+        long now = System.currentTimeMillis();
+        long state = entry.get();
+        if (forgotten(state, now)) {
+            return 0L;
+        }
+        return Math.max(0L, lastFailure(state) + delay(count(state)) - now);
+    }
+
+    public void recordFailure(String key) {
+
+        long now = System.currentTimeMillis();
+        AtomicLong entry = failures.get(key);
+        if (entry == null) {
+            AtomicLong created = new AtomicLong(pack(1, now));
+            entry = failures.putIfAbsent(key, created);
+            if (entry == null) {
+                if (failures.size() > maxEntries) {
+                    evict(now);
+                }
+                return;
+            }
+        }
+
+        while (true) {
+            long state = entry.get();
+            int count = forgotten(state, now) ? 1 : Math.min(MAX_FAILURES, count(state) + 1);
+            if (entry.compareAndSet(state, pack(count, now))) {
+                return;
+            }
+        }
+    }
+
+    public void recordSuccess(String key) {
+        failures.remove(key);
+    }
+
+    public int size() {
+        return failures.size();
+    }
+
+    private long delay(int count) {
+        if (count < freeAttempts) {
+            return 0L;
+        }
+        int doublings = Math.min(count - freeAttempts, 30);
+        return Math.min(maxDelay, initialDelay << doublings);
+    }
+
+    // After a quiet period as long as the longest delay, earlier failures no longer count
+    private boolean forgotten(long state, long now) {
+        return now - lastFailure(state) > maxDelay;
+    }
+
+    private static long pack(int count, long time) {
+        return ((long) count << TIME_BITS) | (time & TIME_MASK);
+    }
+
+    private static int count(long state) {
+        return (int) (state >>> TIME_BITS);
+    }
+
+    private static long lastFailure(long state) {
+        return state & TIME_MASK;
+    }
+
+    private void evict(long now) {
+
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            failures.entrySet().removeIf(e -> forgotten(e.getValue().get(), now));
+
+            int target = maxEntries - maxEntries / 10;
+            Iterator<Map.Entry<String, AtomicLong>> it = failures.entrySet().iterator();
+            while (failures.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
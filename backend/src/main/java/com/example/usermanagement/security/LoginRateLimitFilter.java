@@ -0,0 +1,214 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.dtos.responseDto.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+// Throttles POST /api/auth/** before Spring Security, the database or password hashing
+// run: a token bucket per client IP for every auth call, and for logins also a token
+// bucket and an exponential back-off after failures per email. Over the limit: 429.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    // Login bodies are tiny; anything larger is not read into memory
+    private static final int MAX_BODY = 16 * 1024;
+
+    private final boolean enabled;
+    private final TokenBucketLimiter ipLimiter;
+    private final TokenBucketLimiter emailLimiter;
+    private final LoginBackoff backoff;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+
+    public LoginRateLimitFilter(ObjectMapper objectMapper,
+                                MeterRegistry registry,
+                                @Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${app.security.rate-limit.ip.burst:20}") int ipBurst,
+                                @Value("${app.security.rate-limit.ip.refill:1s}") Duration ipRefill,
+                                @Value("${app.security.rate-limit.email.burst:5}") int emailBurst,
+                                @Value("${app.security.rate-limit.email.refill:10s}") Duration emailRefill,
+                                @Value("${app.security.rate-limit.backoff.free-attempts:5}") int freeAttempts,
+                                @Value("${app.security.rate-limit.backoff.initial:1s}") Duration initialBackoff,
+                                @Value("${app.security.rate-limit.backoff.max:15m}") Duration maxBackoff,
+                                @Value("${app.security.rate-limit.max-entries:100000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.ipLimiter = new TokenBucketLimiter(ipBurst, ipRefill, maxEntries);
+        this.emailLimiter = new TokenBucketLimiter(emailBurst, emailRefill, maxEntries);
+        this.backoff = new LoginBackoff(freeAttempts, initialBackoff, maxBackoff, maxEntries);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !request.getRequestURI().startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // Behind a proxy, set server.forward-headers-strategy so this is the client address
+        long wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            reject(response, "ip", wait / 1_000_000);
+            return;
+        }
+
+        if (!LOGIN_PATH.equals(request.getRequestURI())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY + 1);
+        if (body.length > MAX_BODY) {
+            response.sendError(HttpStatus.CONTENT_TOO_LARGE.value());
+            return;
+        }
+
+        String email = email(body);
+        if (email != null) {
+            long blocked = backoff.blockedFor(email);
+            if (blocked > 0) {
+                reject(response, "backoff", blocked);
+                return;
+            }
+            wait = emailLimiter.tryAcquire(email);
+            if (wait > 0) {
+                reject(response, "email", wait / 1_000_000);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+
+        if (email != null) {
+            if (response.getStatus() == HttpStatus.UNAUTHORIZED.value()) {
+                backoff.recordFailure(email);
+            } else if (response.getStatus() == HttpStatus.OK.value()) {
+                backoff.recordSuccess(email);
+            }
+        }
+    }
+
+    // null when the body is not the JSON the controller expects; it will reject it itself
+    private String email(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isString()
+                    ? email.asString().trim().toLowerCase(Locale.ROOT)
+                    : null;
+        } catch (JacksonException ex) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, String reason, long waitMillis)
+            throws IOException {
+
+        registry.counter("app.auth.throttled", "reason", reason).increment();
+
+        long retryAfter = Math.max(1, (waitMillis + 999) / 1000);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(429, "Too Many Requests",
+                        "Too many attempts. Please try again later."));
+    }
+
+    // Replays a body that has already been read
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The login endpoint reads synchronously; the servlet contract's error for a
+                // request that cannot take a read listener
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new IllegalStateException("Non-blocking reads of a replayed body are not supported");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.usermanagement.security;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Fine-grained permissions. Each owns one bit of a long; a role or user holds the OR of
+// its bits, so an access check is one AND. Bits are persisted in tokens: never reuse or
+// renumber one, only append (at most 64). Roles store them by name in a MySQL enum
+// column (role_permissions.permission): a new constant also needs a migration extending it.
+public enum Permission {
+
+    USERS_READ(0),
+    USERS_WRITE(1),
+    USERS_DELETE(2),
+    USERS_IMPORT(3),
+    ROLES_READ(4),
+    ROLES_WRITE(5),
+    EVENTS_READ(6),
+    AUDIT_READ(7);
+
+    public static final long ALL = mask(values());
+
+    private final long bit;
+
+    Permission(int index) {
+        this.bit = 1L << index;
+    }
+
+    public long bit() {
+        return bit;
+    }
+
+    public static long mask(Permission... permissions) {
+        long mask = 0L;
+        for (Permission permission : permissions) {
+            mask |= permission.bit;
+        }
+        return mask;
+    }
+
+    public static long mask(Iterable<Permission> permissions) {
+        long mask = 0L;
+        for (Permission permission : permissions) {
+            mask |= permission.bit;
+        }
+        return mask;
+    }
+
+    // Bits that no longer map to a permission are ignored
+    public static Set<Permission> fromMask(long mask) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (Permission permission : values()) {
+            if ((mask & permission.bit) != 0) {
+                permissions.add(permission);
+            }
+        }
+        return permissions;
+    }
+}
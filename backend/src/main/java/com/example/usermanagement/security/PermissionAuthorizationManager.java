@@ -0,0 +1,84 @@
+package com.example.usermanagement.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Grants access when the principal's permission bits cover the required ones: one AND,
+// no authority collections walked and nothing allocated per check. Used for path rules
+// via require(...) and for @RequiresPermission methods via forMethods().
+public final class PermissionAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final long required;
+
+    private PermissionAuthorizationManager(long required) {
+        this.required = required;
+    }
+
+    public static <T> PermissionAuthorizationManager<T> require(Permission... permissions) {
+        return new PermissionAuthorizationManager<>(Permission.mask(permissions));
+    }
+
+    public static AuthorizationManager<MethodInvocation> forMethods() {
+        return new MethodManager();
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication, T object) {
+        return decide(authentication.get(), required);
+    }
+
+    static boolean isGranted(Authentication authentication, long required) {
+        return authentication != null
+                && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof UserPrincipal principal
+                && (principal.getPermissions() & required) == required;
+    }
+
+    private static AuthorizationDecision decide(Authentication authentication, long required) {
+        return isGranted(authentication, required) ? GRANTED : DENIED;
+    }
+
+    // The mask of each method is resolved once from its (or its class's) annotation
+    private static final class MethodManager implements AuthorizationManager<MethodInvocation> {
+
+        private final Map<Method, Long> masks = new ConcurrentHashMap<>();
+
+        @Override
+        public AuthorizationResult authorize(Supplier<? extends Authentication> authentication,
+                                             MethodInvocation invocation) {
+            Method method = invocation.getMethod();
+            Long required = masks.get(method);
+            if (required == null) {
+                Class<?> target = invocation.getThis() == null
+                        ? method.getDeclaringClass()
+                        : AopUtils.getTargetClass(invocation.getThis());
+                required = mask(AopUtils.getMostSpecificMethod(method, target));
+                masks.put(method, required);
+            }
+            return decide(authentication.get(), required);
+        }
+
+        private static long mask(Method method) {
+            RequiresPermission annotation =
+                    AnnotatedElementUtils.findMergedAnnotation(method, RequiresPermission.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.findMergedAnnotation(
+                        method.getDeclaringClass(), RequiresPermission.class);
+            }
+            return annotation == null ? 0L : Permission.mask(annotation.value());
+        }
+    }
+}
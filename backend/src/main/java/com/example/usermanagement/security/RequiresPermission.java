@@ -0,0 +1,17 @@
+package com.example.usermanagement.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// The caller must hold every listed permission; on a class it applies to all methods
+// without their own annotation. Checked by PermissionAuthorizationManager.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresPermission {
+
+    Permission[] value();
+}
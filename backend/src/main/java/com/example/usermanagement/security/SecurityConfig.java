@@ -1,17 +1,34 @@
 package com.example.usermanagement.security;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
+@EnableMethodSecurity(prePostEnabled = false)
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
@@ -20,7 +37,51 @@ public class SecurityConfig {
         this.jwtAuthFilter = jwtAuthFilter;
     }
 
+    // Actuator endpoints: HTTP Basic against their own credentials, never the users table or JWTs
     @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(
+            HttpSecurity http,
+            @Value("${app.metrics.username:metrics}") String username,
+            @Value("${app.metrics.password:}") String password) throws Exception {
+
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session ->
+                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .httpBasic(Customizer.withDefaults());
+
+        if (password.isBlank()) {
+            // No scrape credentials configured: only the health check is reachable
+            http.authorizeHttpRequests(auth -> auth
+                    .requestMatchers("/actuator/health/**").permitAll()
+                    .anyRequest().denyAll()
+            );
+            return http.build();
+        }
+
+        // Password in {id} form, e.g. {bcrypt}$2a$10$... or {noop}secret
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(
+                new InMemoryUserDetailsManager(User.withUsername(username)
+                        .password(password)
+                        .roles("METRICS")
+                        .build()));
+        provider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+        http
+                .authenticationManager(new ProviderManager(provider))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .anyRequest().hasRole("METRICS")
+                );
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 
         http
@@ -30,12 +91,22 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
 
+                        // Async dispatches finish requests already authorized, e.g. an SSE stream timing out
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
 
-                        // Role based endpoints
-                        .requestMatchers("/api/roles/**").hasRole("ADMIN")
-                        .requestMatchers("/api/users/**").hasRole("ADMIN")
+                        // Permission based endpoints; writes need more, see @RequiresPermission
+                        .requestMatchers("/api/roles/**")
+                        .access(PermissionAuthorizationManager.require(Permission.ROLES_READ))
+                        .requestMatchers("/api/users/**")
+                        .access(PermissionAuthorizationManager.require(Permission.USERS_READ))
+                        .requestMatchers("/api/events/**")
+                        .access(PermissionAuthorizationManager.require(Permission.EVENTS_READ))
+                        .requestMatchers("/api/audit/**")
+                        .access(PermissionAuthorizationManager.require(Permission.AUDIT_READ))
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthFilter,
@@ -44,9 +115,23 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // @RequiresPermission on controller methods and classes
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requiresPermissionAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(
+                new AnnotationMatchingPointcut(null, RequiresPermission.class, true))
+                .union(new AnnotationMatchingPointcut(RequiresPermission.class, true));
+        AuthorizationManagerBeforeMethodInterceptor interceptor =
+                new AuthorizationManagerBeforeMethodInterceptor(
+                        pointcut, PermissionAuthorizationManager.forMethods());
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashing passwordHashing) {
+        return passwordHashing.offloadingEncoder();
     }
 
     @Bean
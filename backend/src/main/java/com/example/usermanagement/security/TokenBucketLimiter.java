@@ -0,0 +1,80 @@
+package com.example.usermanagement.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets per key, each a single AtomicLong updated by CAS (GCRA: the stored value
+// is the time at which the bucket will be full again). The map is bounded: past
+// maxEntries, full buckets are dropped first, then arbitrary ones.
+public class TokenBucketLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final long interval;
+    private final long tolerance;
+    private final int maxEntries;
+
+    // burst requests at once, then one per refill
+    public TokenBucketLimiter(int burst, Duration refill, int maxEntries) {
+        this.interval = refill.toNanos();
+        this.tolerance = interval * (Math.max(1, burst) - 1);
+        this.maxEntries = maxEntries;
+    }
+
+    // 0 when a token was taken, otherwise the nanoseconds until one is available
+    public long tryAcquire(String key) {
+
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            AtomicLong created = new AtomicLong(now);
+            bucket = buckets.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+                if (buckets.size() > maxEntries) {
+                    evict(now);
+                }
+            }
+        }
+
+        while (true) {
+            long full = bucket.get();
+            long allowAt = full - tolerance;
+            if (now < allowAt) {
+                return allowAt - now;
+            }
+            if (bucket.compareAndSet(full, Math.max(full, now) + interval)) {
+                return 0L;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // One thread at a time; the others carry on without waiting
+    private void evict(long now) {
+
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.entrySet().removeIf(e -> e.getValue().get() <= now);
+
+            int target = maxEntries - maxEntries / 10;
+            Iterator<Map.Entry<String, AtomicLong>> it = buckets.entrySet().iterator();
+            while (buckets.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
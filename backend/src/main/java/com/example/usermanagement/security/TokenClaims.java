@@ -0,0 +1,85 @@
+package com.example.usermanagement.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+// Immutable view of the claims of a token whose signature has been verified
+public final class TokenClaims {
+
+    static final String ACCESS = "access";
+    static final String REFRESH = "refresh";
+
+    // Access tokens issued before the perms claim existed
+    public static final long NO_PERMISSIONS = -1L;
+
+    private final String id;
+    private final String type;
+    private final String family;
+    private final String subject;
+    private final String role;
+    private final long permissions;
+    private final long tokenVersion;
+    private final long issuedAt;
+    private final long expiresAt;
+
+    private TokenClaims(String id, String type, String family,
+                        String subject, String role, long permissions, long tokenVersion,
+                        long issuedAt, long expiresAt) {
+        this.id = id;
+        this.type = type;
+        this.family = family;
+        this.subject = subject;
+        this.role = role;
+        this.permissions = permissions;
+        this.tokenVersion = tokenVersion;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    static TokenClaims from(Claims claims) {
+        return new TokenClaims(
+                claims.getId(),
+                claims.get("typ", String.class),
+                claims.get("fam", String.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                toLong(claims.get("perms", Number.class), NO_PERMISSIONS),
+                toLong(claims.get("ver", Number.class)),
+                toMillis(claims.getIssuedAt()),
+                toMillis(claims.getExpiration())
+        );
+    }
+
+    private static long toLong(Number number) {
+        return toLong(number, 0L);
+    }
+
+    private static long toLong(Number number, long absent) {
+        return number == null ? absent : number.longValue();
+    }
+
+    private static long toMillis(Date date) {
+        return date == null ? 0L : date.getTime();
+    }
+
+    // jti; null on tokens issued before token ids were introduced
+    public String getId() { return id; }
+    public String getFamily() { return family; }
+    public String getSubject() { return subject; }
+    public String getRole() { return role; }
+    // Permission bits, or NO_PERMISSIONS when the token has no perms claim
+    public long getPermissions() { return permissions; }
+    public long getTokenVersion() { return tokenVersion; }
+    public long getIssuedAt() { return issuedAt; }
+    public long getExpiresAt() { return expiresAt; }
+
+    // Tokens without a typ claim predate refresh tokens and are access tokens
+    public boolean isRefreshToken() {
+        return REFRESH.equals(type);
+    }
+
+    public boolean isExpired() {
+        return expiresAt != 0L && expiresAt < System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.usermanagement.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Token ids (jti) and refresh token families that must no longer be accepted, each
+// until the time the token would have expired anyway. Checked on every request.
+@Component
+public class TokenDenylist {
+
+    private static final long BUCKET_MILLIS = 60_000;
+
+    private final ConcurrentHashMap<String, Long> expiresAt = new ConcurrentHashMap<>();
+
+    // Ids grouped by the minute they expire in, so expired ones are dropped a minute at a time
+    private final ConcurrentSkipListMap<Long, Queue<String>> buckets = new ConcurrentSkipListMap<>();
+
+    private final DenylistStore store;
+
+    public TokenDenylist(DenylistStore store) {
+        this.store = store;
+    }
+
+    @PostConstruct
+    public void load() {
+        store.load(System.currentTimeMillis()).forEach(this::index);
+    }
+
+    // Returns false when the id was already denied
+    public boolean deny(String id, long until) {
+
+        long now = System.currentTimeMillis();
+        sweep(now);
+
+        if (until <= now) {
+            return true; // the token is rejected as expired anyway
+        }
+        if (!index(id, until)) {
+            return false;
+        }
+        store.save(id, until);
+        return true;
+    }
+
+    // Hot path: one map lookup, no allocation
+    public boolean isDenied(String id) {
+        if (id == null) {
+            return false;
+        }
+        Long until = expiresAt.get(id);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    public int size() {
+        return expiresAt.size();
+    }
+
+    private boolean index(String id, long until) {
+        if (expiresAt.putIfAbsent(id, until) != null) {
+            return false;
+        }
+        buckets.computeIfAbsent(until / BUCKET_MILLIS, b -> new ConcurrentLinkedQueue<>()).add(id);
+        return true;
+    }
+
+    // Only buckets before the current minute are removed; new ids always land at or after it
+    private void sweep(long now) {
+        long current = now / BUCKET_MILLIS;
+        Map.Entry<Long, Queue<String>> oldest;
+        while ((oldest = buckets.firstEntry()) != null && oldest.getKey() < current) {
+            if (buckets.remove(oldest.getKey(), oldest.getValue())) {
+                oldest.getValue().forEach(expiresAt::remove);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.events.EventOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Users whose tokens were revoked recently. Tokens of these users are checked
+// against the database; everyone else can be authenticated from the token alone.
+// Other nodes learn of revocations from the user change events.
+@Component
+public class TokenRevocations {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocations.class);
+
+    private final ConcurrentHashMap<String, Long> revokedAt = new ConcurrentHashMap<>();
+    private final long accessTtl;
+    private final ObjectMapper objectMapper;
+
+    public TokenRevocations(JwtService jwtService, ObjectMapper objectMapper) {
+        this.accessTtl = jwtService.getAccessTtl();
+        this.objectMapper = objectMapper;
+    }
+
+    public void revoke(String email) {
+        revokedAt.put(email, System.currentTimeMillis());
+    }
+
+    // Events don't say whether sessions ended, so every updated user is checked against the
+    // database for one access token lifetime; that stays correct, only the lookup is extra.
+    // Our own events arrive here too, after the revocation made at commit.
+    @EventListener
+    public void onChange(ChangeEventDTO event) {
+        if (!EventOutbox.USER_UPDATED.equals(event.getType())
+                && !EventOutbox.USER_DELETED.equals(event.getType())) {
+            return;
+        }
+        try {
+            EventOutbox.userEmails(objectMapper, event).forEach(this::revoke);
+        } catch (JacksonException ex) {
+            log.warn("Could not read the emails of change event {}", event.getOffset(), ex);
+        }
+    }
+
+    public boolean isRevoked(String email, long issuedAt) {
+        Long at = revokedAt.get(email);
+        if (at == null) {
+            return false;
+        }
+
+        // Every access token issued before the revocation has expired by now
+        if (at + accessTtl < System.currentTimeMillis()) {
+            revokedAt.remove(email, at);
+            return false;
+        }
+
+        // iat has second precision, so a token from the same second is treated as revoked
+        return issuedAt <= at;
+    }
+}
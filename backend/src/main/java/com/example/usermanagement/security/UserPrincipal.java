@@ -0,0 +1,43 @@
+package com.example.usermanagement.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// Spring Security user that also carries the token version and the permission bits of the account
+public class UserPrincipal extends User {
+
+    private final long tokenVersion;
+    private final long permissions;
+
+    public UserPrincipal(String username,
+                         String password,
+                         Collection<? extends GrantedAuthority> authorities,
+                         long tokenVersion) {
+        this(username, password, authorities, tokenVersion, 0L);
+    }
+
+    public UserPrincipal(String username,
+                         String password,
+                         Collection<? extends GrantedAuthority> authorities,
+                         long tokenVersion,
+                         long permissions) {
+        super(username, password, authorities);
+        this.tokenVersion = tokenVersion;
+        this.permissions = permissions;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    // OR of the Permission bits of all the user's roles
+    public long getPermissions() {
+        return permissions;
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return (permissions & permission.bit()) != 0;
+    }
+}
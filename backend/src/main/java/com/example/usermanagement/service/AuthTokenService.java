@@ -0,0 +1,116 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dtos.responseDto.LoginResponseDTO;
+import com.example.usermanagement.security.JwtService;
+import com.example.usermanagement.security.TokenClaims;
+import com.example.usermanagement.security.TokenDenylist;
+import com.example.usermanagement.security.UserPrincipal;
+import io.jsonwebtoken.JwtException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+// Issues access/refresh token pairs, rotates refresh tokens and revokes tokens on logout
+@Service
+public class AuthTokenService {
+
+    private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
+    private final CustomUserDetailsService userDetailsService;
+
+    public AuthTokenService(JwtService jwtService,
+                            TokenDenylist tokenDenylist,
+                            CustomUserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.tokenDenylist = tokenDenylist;
+        this.userDetailsService = userDetailsService;
+    }
+
+    // After a successful login: starts a new refresh token family
+    public LoginResponseDTO issue(UserPrincipal principal) {
+        return issue(principal, UUID.randomUUID().toString());
+    }
+
+    // No password check: the user is reloaded (usually from the user cache) and the
+    // token version must still match, so a password or role change ends the session
+    public LoginResponseDTO refresh(String refreshToken) {
+
+        TokenClaims claims = jwtService.verify(refreshToken);
+
+        if (!claims.isRefreshToken() || claims.getId() == null || claims.getFamily() == null) {
+            throw new JwtException("Not a refresh token");
+        }
+        if (tokenDenylist.isDenied(claims.getFamily())) {
+            throw new JwtException("Refresh token revoked");
+        }
+
+        // Each refresh token rotates once. Seeing it again means it was copied, so
+        // every token descended from the same login is revoked.
+        if (!tokenDenylist.deny(claims.getId(), claims.getExpiresAt())) {
+            denyFamily(claims.getFamily());
+            throw new JwtException("Refresh token already used");
+        }
+
+        UserPrincipal principal =
+                (UserPrincipal) userDetailsService.loadUserByUsername(claims.getSubject());
+
+        if (principal.getTokenVersion() != claims.getTokenVersion()) {
+            denyFamily(claims.getFamily());
+            throw new JwtException("Refresh token revoked");
+        }
+
+        return issue(principal, claims.getFamily());
+    }
+
+    // Either token may be missing, expired or malformed; whatever is still valid is revoked
+    public void logout(String accessToken, String refreshToken) {
+
+        TokenClaims refresh = verifyOrNull(refreshToken);
+        if (refresh != null && refresh.isRefreshToken() && refresh.getFamily() != null) {
+            denyFamily(refresh.getFamily());
+        }
+
+        TokenClaims access = verifyOrNull(accessToken);
+        if (access != null && access.getId() != null) {
+            tokenDenylist.deny(access.getId(), access.getExpiresAt());
+        }
+    }
+
+    private LoginResponseDTO issue(UserPrincipal principal, String family) {
+
+        long version = principal.getTokenVersion();
+
+        return new LoginResponseDTO(
+                jwtService.generateToken(principal, roleName(principal), version),
+                jwtService.generateRefreshToken(principal, version, family),
+                jwtService.getAccessTtl() / 1000);
+    }
+
+    // The newest token of a family can live a full refresh TTL from now
+    private void denyFamily(String family) {
+        tokenDenylist.deny(family, System.currentTimeMillis() + jwtService.getRefreshTtl());
+    }
+
+    // Expired, tampered, malformed or signed by an unknown key: treated as absent
+    private TokenClaims verifyOrNull(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static String roleName(UserPrincipal principal) {
+        for (GrantedAuthority authority : principal.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith("ROLE_")) {
+                return name.substring("ROLE_".length());
+            }
+        }
+        return null;
+    }
+}
@@ -1,40 +1,188 @@
 package com.example.usermanagement.service;
 
-import com.example.usermanagement.model.User;
+import com.example.usermanagement.cache.BoundedCache;
+import com.example.usermanagement.datasource.ReadYourWrites;
+import com.example.usermanagement.datasource.RoutingContext;
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.events.EventOutbox;
+import com.example.usermanagement.repository.UserCredentials;
 import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final BoundedCache<String, CachedUser> cache;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate readOnly;
+    private final ObjectMapper objectMapper;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    RoleRegistry roleRegistry,
+                                    ReadYourWrites readYourWrites,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${app.security.user-cache.max-size:10000}") int maxSize,
+                                    @Value("${app.security.user-cache.ttl:5m}") Duration ttl) {
         this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.readYourWrites = readYourWrites;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+        // Cache misses may be served by a read replica
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.objectMapper = objectMapper;
     }
 
     @Override
+    @Timed("app.auth.user.load")
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() ->
-                        new UsernameNotFoundException("User not found"));
+        CachedUser user = email == null ? null : cache.get(key(email), k -> load(email));
+
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+
+        // Fresh instance per call: Spring Security erases credentials on the returned object
+        return new UserPrincipal(
+                user.email(),
+                user.password(),
+                user.authorities(),
+                user.tokenVersion(),
+                user.permissions()
+        );
+    }
+
+    // Called by Spring Security after a successful login with an outdated hash format or strength
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        evict(user.getUsername());
+
+        UserPrincipal principal = user instanceof UserPrincipal p ? p : null;
+
+        return new UserPrincipal(
+                user.getUsername(),
+                newPassword,
+                user.getAuthorities(),
+                principal == null ? 0L : principal.getTokenVersion(),
+                principal == null ? 0L : principal.getPermissions()
+        );
+    }
+
+    // Must be called after every write that changes the email, password, role or existence of a user
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(key(email));
+            readYourWrites.written("user:" + key(email));
+        }
+    }
+
+    // Cached users hold compiled permission masks; called after a role's permissions change
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    // Role permissions changed on another node, RoleRegistry has refreshed first; or a user
+    // changed there, and revoked tokens must be checked against the new row, not a cached one
+    @EventListener
+    @Order(1)
+    public void onChange(ChangeEventDTO event) {
+        if (EventOutbox.ROLE_UPDATED.equals(event.getType())) {
+            evictAll();
+        } else if (EventOutbox.USER_UPDATED.equals(event.getType())
+                || EventOutbox.USER_DELETED.equals(event.getType())) {
+            try {
+                EventOutbox.userEmails(objectMapper, event).forEach(email -> cache.invalidate(key(email)));
+            } catch (JacksonException ex) {
+                log.warn("Could not read the emails of change event {}", event.getOffset(), ex);
+            }
+        }
+    }
+
+    // MySQL compares emails case-insensitively, so the cache must too
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    public BoundedCache<String, ?> getCache() {
+        return cache;
+    }
+
+    private CachedUser load(String email) {
+        Supplier<CachedUser> query = () -> readOnly.execute(status ->
+                toCachedUser(userRepository.findCredentialsByEmail(email)));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
+        // A replica may not have the change that just evicted this user; don't cache its old row
+        return readYourWrites.isRecent("user:" + key(email))
+                ? RoutingContext.onPrimary(query)
+                : query.get();
+    }
+
+    // Rows differ only in the additional role; their permissions are compiled here, once per load
+    private CachedUser toCachedUser(List<UserCredentials> rows) {
+
+        if (rows.isEmpty()) {
+            return null;
+        }
+        UserCredentials user = rows.get(0);
+
+        Set<Long> roleIds = new LinkedHashSet<>();
+        roleIds.add(user.roleId());
+        for (UserCredentials row : rows) {
+            if (row.additionalRoleId() != null) {
+                roleIds.add(row.additionalRoleId());
+            }
+        }
+
+        return new CachedUser(
+                user.email(),
+                user.password(),
                 List.of(
                         new SimpleGrantedAuthority(
-                                "ROLE_" + user.getRole().getName()
+                                "ROLE_" + user.roleName()
                         )
-                )
+                ),
+                user.tokenVersion(),
+                roleRegistry.permissionsOf(roleIds.stream().mapToLong(Long::longValue).toArray())
         );
     }
+
+    private record CachedUser(String email,
+                              String password,
+                              List<GrantedAuthority> authorities,
+                              long tokenVersion,
+                              long permissions) {
+    }
 }
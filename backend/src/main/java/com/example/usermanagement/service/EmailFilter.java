@@ -0,0 +1,238 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.cache.BloomFilter;
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.events.EventOutbox;
+import com.example.usermanagement.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bloom filter over every registered email, so the "is this email taken" check before a
+// create, register or email change skips the database for emails never seen. Emails are
+// added before they are inserted here, and from the change events of other instances.
+// Deleted and renamed emails stay in the filter (costing only a query) until the next
+// rebuild. A miss can still race an insert elsewhere; the unique key on users.email
+// rejects that one. Until the first load finishes every check goes to the database.
+@Component
+public class EmailFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailFilter.class);
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final Duration refresh;
+
+    // Held while adding and while swapping filters, so no add falls between the two
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private BloomFilter building;
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmailFilter(UserRepository userRepository,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.users.email-filter.enabled:true}") boolean enabled,
+                       @Value("${app.users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                       @Value("${app.users.email-filter.fpp:0.01}") double fpp,
+                       @Value("${app.users.email-filter.refresh:6h}") Duration refresh) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.refresh = refresh;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "email-filter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::reloadQuietly,
+                0, refresh.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Replaces userRepository.existsByEmail for uniqueness checks
+    public boolean isTaken(String email) {
+
+        if (!mightBeTaken(email)) {
+            return false;
+        }
+
+        boolean taken = userRepository.existsByEmail(email);
+        if (filter != null) {
+            (taken ? positives : falsePositives).increment();
+        }
+        return taken;
+    }
+
+    // false only when the email is certainly not in the table; true while not loaded
+    public boolean mightBeTaken(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(key(email))) {
+            negatives.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Called before the insert or email change, so a concurrent check already sees it
+    public void add(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String key = key(email);
+        lock.lock();
+        try {
+            if (filter != null) {
+                filter.put(key);
+            }
+            if (building != null) {
+                building.put(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Emails written by other instances; our own arrive here too and are already present
+    @EventListener
+    public void onChange(ChangeEventDTO event) {
+        if (!EventOutbox.USER_CREATED.equals(event.getType())
+                && !EventOutbox.USER_UPDATED.equals(event.getType())) {
+            return;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(event.getPayload()).get("email");
+            if (email != null && email.isString()) {
+                add(email.asString());
+            }
+        } catch (JacksonException ex) {
+            log.warn("Could not read the email of change event {}", event.getOffset(), ex);
+        }
+    }
+
+    // Builds a filter sized for twice the current table and swaps it in
+    public void reload() {
+
+        long users = userRepository.count();
+        BloomFilter fresh = new BloomFilter(Math.max(expectedInsertions, users * 2), fpp);
+
+        lock.lock();
+        try {
+            building = fresh;
+        } finally {
+            lock.unlock();
+        }
+
+        boolean loaded = false;
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (var emails = userRepository.streamEmails()) {
+                    emails.forEach(email -> fresh.put(key(email)));
+                }
+            });
+            loaded = true;
+        } finally {
+            lock.lock();
+            try {
+                if (loaded) {
+                    filter = fresh;
+                }
+                building = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+        log.debug("Loaded {} emails into the email filter ({} bits, {} hashes)",
+                users, fresh.bitSize(), fresh.hashCount());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long bitSize() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.bitSize();
+    }
+
+    public long capacity() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.expectedInsertions();
+    }
+
+    public double configuredFpp() {
+        return fpp;
+    }
+
+    public double expectedFpp() {
+        BloomFilter current = filter;
+        return current == null ? Double.NaN : current.expectedFpp();
+    }
+
+    public long negativeCount() {
+        return negatives.sum();
+    }
+
+    public long positiveCount() {
+        return positives.sum();
+    }
+
+    public long falsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.warn("Could not reload the email filter", ex);
+        }
+    }
+
+    // MySQL compares emails case-insensitively
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
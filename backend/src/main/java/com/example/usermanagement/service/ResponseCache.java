@@ -0,0 +1,129 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.cache.BoundedCache;
+import com.example.usermanagement.cache.EncodedResponse;
+import com.example.usermanagement.datasource.ReadYourWrites;
+import com.example.usermanagement.datasource.RoutingContext;
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.events.EventOutbox;
+import com.example.usermanagement.exception.ResourceNotFoundException;
+import com.example.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Encoded bodies of GET /api/roles and GET /api/users/{id}. The roles body belongs to one
+// RoleRegistry snapshot and is re-encoded when the registry reloads; its ETag is a digest
+// of the bytes. A user body is tagged with the row version, the same ETag If-Match expects,
+// and is evicted by every change to the user, made here or on another node.
+@Component
+public class ResponseCache {
+
+    // Clients may keep a copy but must revalidate it with the ETag
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final ObjectMapper objectMapper;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+    private final int gzipMinSize;
+    private final BoundedCache<Long, EncodedResponse> users;
+
+    private volatile EncodedRoles roles;
+
+    public ResponseCache(UserRepository userRepository,
+                         RoleRegistry roleRegistry,
+                         ObjectMapper objectMapper,
+                         ReadYourWrites readYourWrites,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.http.response-cache.enabled:true}") boolean enabled,
+                         @Value("${app.http.response-cache.max-size:10000}") int maxSize,
+                         @Value("${app.http.response-cache.ttl:10m}") Duration ttl,
+                         @Value("${app.http.response-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.objectMapper = objectMapper;
+        this.readYourWrites = readYourWrites;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.enabled = enabled;
+        this.gzipMinSize = gzipMinSize;
+        this.users = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public EncodedResponse roles() {
+        List<RoleResponseDTO> all = roleRegistry.all();
+        EncodedRoles current = roles;
+        if (current != null && current.source() == all) {
+            return current.response();
+        }
+
+        byte[] json = objectMapper.writeValueAsBytes(all);
+        EncodedResponse response = EncodedResponse.of(json, DigestUtils.md5DigestAsHex(json),
+                gzipMinSize, CACHE_CONTROL);
+        if (enabled) {
+            // Racing encoders of the same snapshot produce the same bytes
+            roles = new EncodedRoles(all, response);
+        }
+        return response;
+    }
+
+    // ResourceNotFoundException for an unknown id; misses are not cached
+    public EncodedResponse user(Long id) {
+        return enabled ? users.get(id, this::loadUser) : loadUser(id);
+    }
+
+    // After the commit of every change to the user
+    public void evictUser(Long id) {
+        users.invalidate(id);
+        readYourWrites.written(key(id));
+    }
+
+    // Changes committed on other nodes; ours were evicted already
+    @EventListener
+    public void onChange(ChangeEventDTO event) {
+        if ((EventOutbox.USER_UPDATED.equals(event.getType())
+                || EventOutbox.USER_DELETED.equals(event.getType()))
+                && event.getAggregateId() != null) {
+            users.invalidate(event.getAggregateId());
+        }
+    }
+
+    public BoundedCache<Long, ?> getUserCache() {
+        return users;
+    }
+
+    private EncodedResponse loadUser(Long id) {
+        Supplier<UserResponseDTO> query = () -> readOnly.execute(status ->
+                userRepository.findViewById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("User not found")));
+
+        // A replica may not have the change that just evicted this user; don't cache its old row
+        UserResponseDTO user = readYourWrites.isRecent(key(id))
+                ? RoutingContext.onPrimary(query)
+                : query.get();
+
+        return EncodedResponse.of(objectMapper.writeValueAsBytes(user),
+                String.valueOf(user.getVersion()), gzipMinSize, CACHE_CONTROL);
+    }
+
+    private static String key(Long id) {
+        return "user-id:" + id;
+    }
+
+    private record EncodedRoles(List<RoleResponseDTO> source, EncodedResponse response) {
+    }
+}
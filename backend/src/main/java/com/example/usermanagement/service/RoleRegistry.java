@@ -0,0 +1,190 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.events.EventOutbox;
+import com.example.usermanagement.model.Role;
+import com.example.usermanagement.repository.RoleRepository;
+import com.example.usermanagement.security.Permission;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// In-memory copy of the roles table with each role's permissions compiled into a bit mask.
+// Readers see one immutable snapshot; refresh() builds a new one and swaps it in atomically.
+// Role events from other nodes refresh it, and so does a background reload every refresh
+// interval. A lookup miss never reloads on the caller's thread: the name may come straight
+// from a public request (register), so it only schedules a reload for the next lookup.
+@Component
+public class RoleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleRegistry.class);
+
+    // Keeps every permission, whatever is stored for it
+    static final String ADMIN = "ADMIN";
+
+    // A miss may be a role created on another node; reload at most this often
+    private static final long MISS_REFRESH_INTERVAL_MS = 1000;
+
+    private final RoleRepository roleRepository;
+    private final Duration refreshInterval;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+    private volatile long lastRefresh;
+    private final AtomicBoolean missRefreshPending = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    public RoleRegistry(RoleRepository roleRepository,
+                        @Value("${app.roles.refresh:1m}") Duration refreshInterval) {
+        this.roleRepository = roleRepository;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        refresh();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "role-registry");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void refresh() {
+        List<RoleResponseDTO> roles = roleRepository.findAllWithPermissions()
+                .stream()
+                .map(RoleRegistry::toResponse)
+                .toList();
+        snapshot = new Snapshot(roles);
+        lastRefresh = System.currentTimeMillis();
+    }
+
+    public Optional<RoleResponseDTO> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        RoleResponseDTO role = snapshot.byName.get(key);
+        if (role == null) {
+            refreshAfterMiss();
+        }
+        return Optional.ofNullable(role);
+    }
+
+    public Optional<RoleResponseDTO> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        RoleResponseDTO role = snapshot.byId.get(id);
+        if (role == null) {
+            refreshAfterMiss();
+        }
+        return Optional.ofNullable(role);
+    }
+
+    public List<RoleResponseDTO> all() {
+        return snapshot.all;
+    }
+
+    // Union of the permissions of the given roles; unknown ids add nothing
+    public long permissionsOf(long[] roleIds) {
+        long mask = 0L;
+        for (long roleId : roleIds) {
+            RoleResponseDTO role = findById(roleId).orElse(null);
+            if (role != null) {
+                mask |= role.getPermissionMask();
+            }
+        }
+        return mask;
+    }
+
+    // Role changes made on other nodes; before the user cache drops its compiled masks
+    @EventListener
+    @Order(0)
+    public void onChange(ChangeEventDTO event) {
+        if (EventOutbox.ROLE_CREATED.equals(event.getType())
+                || EventOutbox.ROLE_UPDATED.equals(event.getType())) {
+            refresh();
+        }
+    }
+
+    static RoleResponseDTO toResponse(Role role) {
+        long mask = ADMIN.equalsIgnoreCase(role.getName())
+                ? Permission.ALL
+                : Permission.mask(role.getPermissions());
+        return new RoleResponseDTO(role.getId(), role.getName(), mask);
+    }
+
+    // One reload at a time on the registry thread, however many requests miss meanwhile
+    private void refreshAfterMiss() {
+        if (scheduler == null
+                || System.currentTimeMillis() - lastRefresh < MISS_REFRESH_INTERVAL_MS
+                || !missRefreshPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                try {
+                    refreshQuietly();
+                } finally {
+                    missRefreshPending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Shutting down
+            missRefreshPending.set(false);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Could not reload the roles", ex);
+        }
+    }
+
+    private static final class Snapshot {
+        final List<RoleResponseDTO> all;
+        final Map<String, RoleResponseDTO> byName;
+        final Map<Long, RoleResponseDTO> byId;
+
+        Snapshot(List<RoleResponseDTO> roles) {
+            Map<String, RoleResponseDTO> names = new HashMap<>();
+            Map<Long, RoleResponseDTO> ids = new HashMap<>();
+            for (RoleResponseDTO role : roles) {
+                names.put(role.getName().toLowerCase(Locale.ROOT), role);
+                ids.put(role.getId(), role);
+            }
+            this.all = List.copyOf(roles);
+            this.byName = Map.copyOf(names);
+            this.byId = Map.copyOf(ids);
+        }
+    }
+}
@@ -1,32 +1,101 @@
 package com.example.usermanagement.service;
 
+import com.example.usermanagement.audit.AuditAction;
+import com.example.usermanagement.audit.AuditLog;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.events.EventOutbox;
 import com.example.usermanagement.model.Role;
 import com.example.usermanagement.repository.RoleRepository;
 import com.example.usermanagement.exception.ResourceNotFoundException;
+import com.example.usermanagement.security.Permission;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class RoleService {
 
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final EventOutbox eventOutbox;
+    private final CustomUserDetailsService userDetailsService;
+    private final AuditLog auditLog;
 
-    public RoleService(RoleRepository roleRepository) {
+    public RoleService(RoleRepository roleRepository,
+                       RoleRegistry roleRegistry,
+                       EventOutbox eventOutbox,
+                       CustomUserDetailsService userDetailsService,
+                       AuditLog auditLog) {
         this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
+        this.eventOutbox = eventOutbox;
+        this.userDetailsService = userDetailsService;
+        this.auditLog = auditLog;
     }
 
-    public Role createRole(Role role) {
-        return roleRepository.save(role);
+    @Transactional
+    public RoleResponseDTO createRole(Role role) {
+        if (role.getPermissions() == null) {
+            role.setPermissions(EnumSet.noneOf(Permission.class));
+        }
+        Role saved = roleRepository.save(role);
+        RoleResponseDTO response = RoleRegistry.toResponse(saved);
+        eventOutbox.record(EventOutbox.ROLE_CREATED, saved.getId(), response);
+        TransactionHooks.afterCommit(() -> {
+            roleRegistry.refresh();
+            auditLog.record(AuditAction.ROLE_CREATED, saved.getName(),
+                    "id=" + saved.getId() + " permissions=" + response.getPermissions());
+        });
+        return response;
     }
 
-    public List<Role> getAllRoles() {
-        return roleRepository.findAll();
+    // Replaces the role's permissions. Users authenticated from the database see the
+    // change on their next request; stateless access tokens keep theirs until they expire.
+    @Transactional
+    public RoleResponseDTO updatePermissions(Long id, Collection<Permission> permissions) {
+
+        Role role = roleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
+
+        role.getPermissions().clear();
+        role.getPermissions().addAll(permissions);
+
+        RoleResponseDTO response = RoleRegistry.toResponse(role);
+        eventOutbox.record(EventOutbox.ROLE_UPDATED, role.getId(), response);
+        TransactionHooks.afterCommit(() -> {
+            roleRegistry.refresh();
+            userDetailsService.evictAll();
+            auditLog.record(AuditAction.ROLE_PERMISSIONS_UPDATED, role.getName(),
+                    "id=" + role.getId() + " permissions=" + response.getPermissions());
+        });
+        return response;
     }
 
-    public Role getByName(String name) {
-        return roleRepository.findByNameIgnoreCase(name.trim())
+    public List<RoleResponseDTO> getAllRoles() {
+        return roleRegistry.all();
+    }
+
+    public RoleResponseDTO getByName(String name) {
+        return findByName(name)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Role not found: " + name));
     }
+
+    // Case-insensitive, served from memory
+    public Optional<RoleResponseDTO> findByName(String name) {
+        return roleRegistry.findByName(name);
+    }
+
+    public Optional<RoleResponseDTO> findById(Long id) {
+        return roleRegistry.findById(id);
+    }
+
+    // Entity reference for a foreign key, without selecting the row
+    public Role getReference(RoleResponseDTO role) {
+        return roleRepository.getReferenceById(role.getId());
+    }
 }
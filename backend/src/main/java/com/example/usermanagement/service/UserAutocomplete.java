@@ -0,0 +1,250 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Optional in-memory prefix index over user names, name words and emails for typeahead.
+// Terms live in a sorted skip list, so a prefix lookup is one seek plus a short scan and
+// never touches the database. Writes on this node are applied after commit, and replayed
+// onto an index being rebuilt, whose snapshot may predate them; writes made elsewhere show
+// up at the next full reload. Until the first load finishes, suggest() returns null and
+// callers fall back to the database.
+@Component
+public class UserAutocomplete {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAutocomplete.class);
+
+    // Separates the term from the id so equal terms of different users get distinct keys
+    private static final char SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+    private final Duration refresh;
+
+    // Writes are rare; serializing them keeps a user's terms and its entry in step.
+    // Held while recording writes for a reload and while swapping indexes.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Index index;
+    // Writes made while a reload runs, by id; a null value is a removal
+    private Map<Long, UserResponseDTO> pending;
+    private ScheduledExecutorService scheduler;
+
+    public UserAutocomplete(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.users.autocomplete.enabled:false}") boolean enabled,
+                            @Value("${app.users.autocomplete.refresh:10m}") Duration refresh) {
+        this.userRepository = userRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.enabled = enabled;
+        this.refresh = refresh;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-autocomplete");
+            t.setDaemon(true);
+            return t;
+        });
+        // First load in the background so a large table does not hold up startup
+        scheduler.scheduleWithFixedDelay(this::reloadQuietly,
+                0, refresh.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // null while the index is disabled or still loading
+    public List<UserResponseDTO> suggest(String prefix, int limit) {
+
+        Index current = index;
+        if (current == null) {
+            return null;
+        }
+
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        Set<UserResponseDTO> matches = new LinkedHashSet<>();
+
+        for (Map.Entry<String, UserResponseDTO> entry : current.terms.tailMap(key).entrySet()) {
+            if (!entry.getKey().startsWith(key) || matches.size() == limit) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return new ArrayList<>(matches);
+    }
+
+    public void put(UserResponseDTO user) {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (index != null) {
+                index.put(user);
+            }
+            if (pending != null) {
+                pending.put(user.getId(), user);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (index != null) {
+                index.remove(id);
+            }
+            if (pending != null) {
+                pending.put(id, null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        Index current = index;
+        return current == null ? 0 : current.users.size();
+    }
+
+    // Builds a fresh index from the table and swaps it in
+    public void reload() {
+
+        Index fresh = new Index();
+        writeLock.lock();
+        try {
+            pending = new HashMap<>();
+        } finally {
+            writeLock.unlock();
+        }
+
+        boolean loaded = false;
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (var users = userRepository.streamAll()) {
+                    users.forEach(fresh::put);
+                }
+            });
+            loaded = true;
+        } finally {
+            writeLock.lock();
+            try {
+                if (loaded) {
+                    // Newer than whatever the snapshot read for these ids
+                    pending.forEach((id, user) -> {
+                        if (user == null) {
+                            fresh.remove(id);
+                        } else {
+                            fresh.put(user);
+                        }
+                    });
+                    index = fresh;
+                }
+                pending = null;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        log.debug("Loaded {} users into the autocomplete index", fresh.users.size());
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.warn("Could not reload the autocomplete index", ex);
+        }
+    }
+
+    private static final class Index {
+        final ConcurrentSkipListMap<String, UserResponseDTO> terms = new ConcurrentSkipListMap<>();
+        final Map<Long, UserResponseDTO> users = new ConcurrentHashMap<>();
+
+        void put(UserResponseDTO user) {
+            UserResponseDTO old = users.put(user.getId(), user);
+            if (old != null) {
+                removeTerms(old);
+            }
+            addTerms(user);
+        }
+
+        void remove(Long id) {
+            UserResponseDTO old = users.remove(id);
+            if (old != null) {
+                removeTerms(old);
+            }
+        }
+
+        private void addTerms(UserResponseDTO user) {
+            for (String term : terms(user)) {
+                terms.put(term + SEPARATOR + user.getId(), user);
+            }
+        }
+
+        private void removeTerms(UserResponseDTO user) {
+            for (String term : terms(user)) {
+                terms.remove(term + SEPARATOR + user.getId());
+            }
+        }
+
+        // "Ada Lovelace", ada@x.com -> "ada lovelace", "lovelace", "ada@x.com"
+        private static Set<String> terms(UserResponseDTO user) {
+            Set<String> terms = new LinkedHashSet<>();
+            if (user.getName() != null) {
+                String name = user.getName().trim().toLowerCase(Locale.ROOT);
+                terms.add(name);
+                for (String word : name.split("\\s+")) {
+                    if (!word.isEmpty() && !name.startsWith(word)) {
+                        terms.add(word);
+                    }
+                }
+            }
+            if (user.getEmail() != null) {
+                terms.add(user.getEmail().toLowerCase(Locale.ROOT));
+            }
+            return terms;
+        }
+    }
+}
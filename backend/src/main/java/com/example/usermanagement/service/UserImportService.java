@@ -0,0 +1,377 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.audit.AuditAction;
+import com.example.usermanagement.audit.AuditLog;
+import com.example.usermanagement.dtos.requestDto.UserRequestDto;
+import com.example.usermanagement.dtos.responseDto.BulkImportResponseDTO;
+import com.example.usermanagement.dtos.responseDto.BulkImportRowResultDTO;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.events.EventOutbox;
+import com.example.usermanagement.exception.BusinessException;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.security.PasswordHashing;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Creates many users in one call: set-based duplicate check, parallel hashing, JDBC batch inserts
+@Service
+public class UserImportService {
+
+    // users.id stays IDENTITY, so rows go through JDBC batching rather than Hibernate
+    private static final String INSERT_SQL =
+            "insert into users (name, email, password, role_id, token_version, version) " +
+            "values (?, ?, ?, ?, 0, 0)";
+
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final RoleService roleService;
+    private final UserAutocomplete autocomplete;
+    private final EmailFilter emailFilter;
+    private final EventOutbox eventOutbox;
+    private final AuditLog auditLog;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor hashingPool;
+    private final int batchSize;
+    private final int maxRows;
+
+    public UserImportService(UserRepository userRepository,
+                             RoleService roleService,
+                             UserAutocomplete autocomplete,
+                             EmailFilter emailFilter,
+                             EventOutbox eventOutbox,
+                             AuditLog auditLog,
+                             PasswordHashing passwordHashing,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.users.import.hash-threads:0}") int hashThreads,
+                             @Value("${app.users.import.batch-size:500}") int batchSize,
+                             @Value("${app.users.import.max-rows:50000}") int maxRows) {
+        this.userRepository = userRepository;
+        this.roleService = roleService;
+        this.autocomplete = autocomplete;
+        this.emailFilter = emailFilter;
+        this.eventOutbox = eventOutbox;
+        this.auditLog = auditLog;
+        // Hashes on this service's own bounded pool, not on the request hashing pool
+        this.passwordEncoder = passwordHashing.encoder();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+
+        int threads = hashThreads > 0
+                ? hashThreads
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+
+        // Bounded queue; when it is full the importing thread hashes the row itself
+        this.hashingPool = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                r -> {
+                    Thread t = new Thread(r, "user-import-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public BulkImportResponseDTO importUsers(List<UserRequestDto> requests) {
+
+        if (requests.size() > maxRows) {
+            throw new BusinessException("Too many rows, at most " + maxRows + " per import");
+        }
+
+        List<Row> rows = new ArrayList<>(requests.size());
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            Row row = new Row(i + 1, requests.get(i));
+            row.error = validate(row, seen);
+            rows.add(row);
+        }
+
+        rejectExistingEmails(rows);
+
+        // Start hashing everything up front; inserts wait batch by batch
+        for (Row row : rows) {
+            if (row.error == null) {
+                String raw = row.dto.getPassword();
+                row.hash = CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(raw), hashingPool);
+            }
+        }
+
+        List<Row> batch = new ArrayList<>(batchSize);
+        for (Row row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch);
+        }
+
+        return report(rows);
+    }
+
+    public BulkImportResponseDTO importCsv(Reader reader) throws IOException {
+        return importUsers(parseCsv(reader));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    private String validate(Row row, Set<String> seen) {
+
+        UserRequestDto dto = row.dto;
+
+        if (dto == null) {
+            return "Empty row";
+        }
+        if (isBlank(dto.getName()) || isBlank(dto.getEmail())) {
+            return "Name and email are required";
+        }
+        if (dto.getPassword() == null || dto.getPassword().length() < 5) {
+            return "Password must be at least 5 characters";
+        }
+
+        row.role = roleService.findByName(dto.getRoleName()).orElse(null);
+        if (row.role == null) {
+            return "Role not found";
+        }
+
+        row.emailKey = dto.getEmail().toLowerCase(Locale.ROOT);
+        if (!seen.add(row.emailKey)) {
+            return "Duplicate email in import";
+        }
+        return null;
+    }
+
+    private void rejectExistingEmails(List<Row> rows) {
+
+        // Emails the filter has never seen need no lookup
+        List<Row> candidates = rows.stream()
+                .filter(r -> r.error == null && emailFilter.mightBeTaken(r.dto.getEmail()))
+                .toList();
+        Set<String> existing = new HashSet<>();
+
+        for (int from = 0; from < candidates.size(); from += IN_CLAUSE_SIZE) {
+            List<String> emails = candidates
+                    .subList(from, Math.min(from + IN_CLAUSE_SIZE, candidates.size()))
+                    .stream()
+                    .map(r -> r.dto.getEmail())
+                    .toList();
+
+            userRepository.findExistingEmails(emails)
+                    .forEach(email -> existing.add(email.toLowerCase(Locale.ROOT)));
+        }
+
+        for (Row row : candidates) {
+            if (existing.contains(row.emailKey)) {
+                row.error = "Email already exists";
+            }
+        }
+    }
+
+    private void insert(List<Row> batch) {
+
+        List<Row> ready = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            try {
+                row.passwordHash = row.hash.join();
+                ready.add(row);
+            } catch (CompletionException ex) {
+                row.error = "Password hashing failed";
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+        ready.forEach(row -> emailFilter.add(row.dto.getEmail()));
+
+        try {
+            List<UserResponseDTO> created = transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, ready, ready.size(), (ps, row) -> {
+                    ps.setString(1, row.dto.getName());
+                    ps.setString(2, row.dto.getEmail());
+                    ps.setString(3, row.passwordHash);
+                    ps.setLong(4, row.role.getId());
+                });
+                return recordCreated(ready);
+            });
+            ready.forEach(row -> row.created = true);
+            created.forEach(this::inserted);
+        } catch (DataAccessException ex) {
+            // Someone inserted one of these emails meanwhile: retry row by row for exact results
+            ready.forEach(this::insertOne);
+        }
+    }
+
+    private void insertOne(Row row) {
+        try {
+            List<UserResponseDTO> created = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(INSERT_SQL,
+                        row.dto.getName(),
+                        row.dto.getEmail(),
+                        row.passwordHash,
+                        row.role.getId());
+                return recordCreated(List.of(row));
+            });
+            row.created = true;
+            created.forEach(this::inserted);
+        } catch (DataAccessException ex) {
+            row.error = "Duplicate or invalid data";
+        }
+    }
+
+    // After the commit
+    private void inserted(UserResponseDTO user) {
+        autocomplete.put(user);
+        auditLog.record(AuditAction.USER_CREATED, user.getEmail(),
+                "id=" + user.getId() + " role=" + user.getRoleName() + " import");
+    }
+
+    // The inserts return no ids, so the new rows are read back for their change events
+    private List<UserResponseDTO> recordCreated(List<Row> rows) {
+        List<UserResponseDTO> created = userRepository.findViewsByEmails(
+                rows.stream().map(r -> r.dto.getEmail()).toList());
+        eventOutbox.recordAll(EventOutbox.USER_CREATED, created, UserResponseDTO::getId);
+        return created;
+    }
+
+    private static BulkImportResponseDTO report(List<Row> rows) {
+
+        List<BulkImportRowResultDTO> results = new ArrayList<>(rows.size());
+        int created = 0;
+
+        for (Row row : rows) {
+            String email = row.dto == null ? null : row.dto.getEmail();
+            if (row.created) {
+                created++;
+                results.add(new BulkImportRowResultDTO(row.index, email, "CREATED", null));
+            } else {
+                results.add(new BulkImportRowResultDTO(row.index, email, "FAILED", row.error));
+            }
+        }
+
+        return new BulkImportResponseDTO(rows.size(), created, rows.size() - created, results);
+    }
+
+    // Columns: name,email,password,roleName; an optional header row is skipped
+    static List<UserRequestDto> parseCsv(Reader reader) throws IOException {
+
+        List<UserRequestDto> users = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        boolean first = true;
+
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(line);
+            if (first && "name".equalsIgnoreCase(fields.get(0))) {
+                first = false;
+                continue;
+            }
+            first = false;
+
+            UserRequestDto dto = new UserRequestDto();
+            dto.setName(field(fields, 0));
+            dto.setEmail(field(fields, 1));
+            dto.setPassword(field(fields, 2));
+            dto.setRoleName(field(fields, 3));
+            users.add(dto);
+        }
+        return users;
+    }
+
+    private static List<String> splitCsvLine(String line) {
+
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static final class Row {
+        final int index;
+        final UserRequestDto dto;
+        RoleResponseDTO role;
+        String emailKey;
+        CompletableFuture<String> hash;
+        String passwordHash;
+        String error;
+        boolean created;
+
+        Row(int index, UserRequestDto dto) {
+            this.index = index;
+            this.dto = dto;
+        }
+    }
+}
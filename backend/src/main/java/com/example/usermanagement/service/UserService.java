@@ -1,37 +1,95 @@
 package com.example.usermanagement.service;
 
+import com.example.usermanagement.audit.AuditAction;
+import com.example.usermanagement.audit.AuditLog;
+import com.example.usermanagement.dtos.requestDto.RegisterRequestDto;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserPageResponseDTO;
 import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserRolesResponseDTO;
+import com.example.usermanagement.events.EventOutbox;
 import com.example.usermanagement.exception.BusinessException;
+import com.example.usermanagement.exception.PreconditionFailedException;
 import com.example.usermanagement.exception.ResourceNotFoundException;
 import com.example.usermanagement.model.Role;
 import com.example.usermanagement.model.User;
-import com.example.usermanagement.repository.RoleRepository;
 import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.repository.UserSearch;
+import com.example.usermanagement.security.Permission;
+import com.example.usermanagement.security.TokenRevocations;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleService roleService;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocations tokenRevocations;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserAutocomplete autocomplete;
+    private final EmailFilter emailFilter;
+    private final EventOutbox eventOutbox;
+    private final AuditLog auditLog;
+    private final ResponseCache responseCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPageSize;
 
     public UserService(UserRepository userRepository,
-                       RoleRepository roleRepository,
-                       PasswordEncoder passwordEncoder) {
+                       RoleService roleService,
+                       PasswordEncoder passwordEncoder,
+                       TokenRevocations tokenRevocations,
+                       CustomUserDetailsService userDetailsService,
+                       UserAutocomplete autocomplete,
+                       EmailFilter emailFilter,
+                       EventOutbox eventOutbox,
+                       AuditLog auditLog,
+                       ResponseCache responseCache,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${app.users.max-page-size:500}") int maxPageSize) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleService = roleService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenRevocations = tokenRevocations;
+        this.userDetailsService = userDetailsService;
+        this.autocomplete = autocomplete;
+        this.emailFilter = emailFilter;
+        this.eventOutbox = eventOutbox;
+        this.auditLog = auditLog;
+        this.responseCache = responseCache;
+        this.transactionTemplate = transactionTemplate;
+        this.maxPageSize = maxPageSize;
     }
 
-    // CREATE
-    public User create(User user, String roleName) {
-
+    // CREATE. Passwords are hashed before the transaction begins, so no pooled connection
+    // waits on the hashing pool; create, register and update run their writes in transactionTemplate.
+    @Timed(value = "app.users.operation", extraTags = {"operation", "create"})
+    public UserResponseDTO create(User user, String roleName) {
 
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (emailFilter.isTaken(user.getEmail())) {
             throw new BusinessException("Email already exists");
         }
 
@@ -39,64 +97,405 @@ public class UserService {
             throw new BusinessException("Password must be at least 5 characters");
         }
 
-        Role role = roleRepository.findByName(roleName)
+        RoleResponseDTO role = roleService.findByName(roleName)
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
 
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setRole(role);
 
-        return userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            user.setRole(roleService.getReference(role));
+            return insert(user, role, AuditAction.USER_CREATED);
+        });
     }
 
-    // READ ALL
+    // REGISTER (public sign-up)
+    @Timed(value = "app.users.operation", extraTags = {"operation", "register"})
+    public UserResponseDTO register(RegisterRequestDto dto) {
 
-    public List<UserResponseDTO> getAll() {
-        return userRepository.findAll()
-                .stream()
-                .map(user -> new UserResponseDTO(
-                        user.getId(),
-                        user.getName(),
-                        user.getEmail(),
-                        user.getRole().getName()
-                ))
-                .toList();
+        if (emailFilter.isTaken(dto.getEmail())) {
+            throw new BusinessException("Email already exists");
+        }
+
+        RoleResponseDTO role = roleService.findByName(dto.getRoleName())
+                .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
+
+        User user = new User();
+        user.setName(dto.getName());
+        user.setEmail(dto.getEmail());
+        user.setPassword(passwordEncoder.encode(dto.getPassword()));
+
+        return transactionTemplate.execute(status -> {
+            user.setRole(roleService.getReference(role));
+            return insert(user, role, AuditAction.USER_REGISTERED);
+        });
+    }
+
+    private UserResponseDTO insert(User user, RoleResponseDTO role, AuditAction action) {
+
+        emailFilter.add(user.getEmail());
+        User saved = userRepository.save(user);
+        UserResponseDTO response = toResponse(saved, role.getName());
+        eventOutbox.record(EventOutbox.USER_CREATED, saved.getId(), response);
+
+        TransactionHooks.afterCommit(() -> {
+            userDetailsService.evict(saved.getEmail());
+            autocomplete.put(response);
+            auditLog.record(action, saved.getEmail(),
+                    "id=" + saved.getId() + " role=" + role.getName());
+        });
+        return response;
+    }
+
+    // READ ALL (keyset pagination on id)
+    @Transactional(readOnly = true)
+    @Timed(value = "app.users.operation", extraTags = {"operation", "page"})
+    public UserPageResponseDTO getPage(String cursor, int limit) {
+
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        long afterId = decodeCursor(cursor);
+
+        // One extra row tells us whether there is a next page
+        List<UserResponseDTO> rows =
+                userRepository.findPageAfter(afterId, Limit.of(size + 1));
+
+        if (rows.size() <= size) {
+            return new UserPageResponseDTO(rows, null);
+        }
+
+        List<UserResponseDTO> page = rows.subList(0, size);
+        return new UserPageResponseDTO(
+                List.copyOf(page),
+                encodeCursor(page.get(size - 1).getId()));
+    }
+
+    // READ ALL (streamed, constant memory)
+    @Transactional(readOnly = true)
+    @Timed(value = "app.users.operation", extraTags = {"operation", "stream"})
+    public void streamAll(Consumer<UserResponseDTO> consumer) {
+        try (Stream<UserResponseDTO> users = userRepository.streamAll()) {
+            users.forEach(consumer);
+        }
+    }
+
+    // SEARCH (prefix of name or email, optional role, sort "field" or "field,desc", keyset pages)
+    @Transactional(readOnly = true)
+    @Timed(value = "app.users.operation", extraTags = {"operation", "search"})
+    public UserPageResponseDTO search(String q, String roleName, String sort,
+                                      String cursor, int limit) {
+
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        String prefix = q == null || q.isBlank() ? null : q.trim();
+
+        Long roleId = null;
+        if (roleName != null && !roleName.isBlank()) {
+            roleId = roleService.findByName(roleName)
+                    .orElseThrow(() -> new ResourceNotFoundException("Role not found"))
+                    .getId();
+        }
+
+        UserSearch.Sort sortBy = UserSearch.Sort.ID;
+        boolean descending = false;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",", 2);
+            try {
+                sortBy = UserSearch.Sort.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new BusinessException("Invalid sort, expected id, name or email");
+            }
+            descending = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc");
+        }
+
+        // The cursor is "id" or "id:value of the sort column" of the last row
+        Long afterId = null;
+        String afterValue = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String decoded = decodeCursorText(cursor);
+            int colon = decoded.indexOf(':');
+            afterId = parseId(colon < 0 ? decoded : decoded.substring(0, colon));
+            afterValue = colon < 0 ? null : decoded.substring(colon + 1);
+            if ((afterValue == null) != (sortBy == UserSearch.Sort.ID)) {
+                throw new BusinessException("Invalid cursor");
+            }
+        }
+
+        List<UserResponseDTO> rows = userRepository.search(new UserSearch(
+                prefix, roleId, sortBy, descending, afterValue, afterId, size + 1));
+
+        if (rows.size() <= size) {
+            return new UserPageResponseDTO(rows, null);
+        }
+
+        List<UserResponseDTO> page = rows.subList(0, size);
+        UserResponseDTO last = page.get(size - 1);
+        String next = switch (sortBy) {
+            case ID -> encodeCursor(last.getId());
+            case NAME -> encodeCursor(last.getId() + ":" + last.getName());
+            case EMAIL -> encodeCursor(last.getId() + ":" + last.getEmail());
+        };
+        return new UserPageResponseDTO(List.copyOf(page), next);
+    }
+
+    // AUTOCOMPLETE (in-memory index when enabled, else an indexed prefix query)
+    @Timed(value = "app.users.operation", extraTags = {"operation", "autocomplete"})
+    public List<UserResponseDTO> autocomplete(String q, int limit) {
+
+        if (q == null || q.isBlank()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+
+        List<UserResponseDTO> suggestions = autocomplete.suggest(q, size);
+        if (suggestions != null) {
+            return suggestions;
+        }
+        return userRepository.search(new UserSearch(
+                q.trim(), null, UserSearch.Sort.NAME, false, null, null, size));
+    }
+
+    private static String encodeCursor(long id) {
+        return encodeCursor(Long.toString(id));
+    }
+
+    private static String encodeCursor(String text) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursorText(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException ex) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        return parseId(decodeCursorText(cursor));
     }
 
     // READ BY ID
-    public User getById(Long id) {
+    @Transactional(readOnly = true)
+    @Timed(value = "app.users.operation", extraTags = {"operation", "get"})
+    public UserResponseDTO getById(Long id) {
+        return userRepository.findViewById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    private User findUser(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
-    // UPDATE
-    public User update(Long id, User updated, String roleName) {
+    private static UserResponseDTO toResponse(User user, String roleName) {
+        return new UserResponseDTO(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                roleName,
+                user.getVersion());
+    }
+
+    // UPDATE (expectedVersions from If-Match, any of which may match; null to skip the check)
+    @Timed(value = "app.users.operation", extraTags = {"operation", "update"})
+    public UserResponseDTO update(Long id, User updated, String roleName, Set<Long> expectedVersions) {
+
+        String passwordHash = updated.getPassword() != null && !updated.getPassword().isBlank()
+                ? passwordEncoder.encode(updated.getPassword())
+                : null;
+
+        try {
+            return transactionTemplate.execute(status ->
+                    update(id, updated, passwordHash, roleName, expectedVersions));
+        } catch (OptimisticLockingFailureException ex) {
+            // The If-Match version was current when read, but not at the flush
+            if (expectedVersions != null) {
+                throw new PreconditionFailedException("User has been modified, reload it and retry");
+            }
+            throw ex;
+        }
+    }
+
+    private UserResponseDTO update(Long id, User updated, String passwordHash,
+                                   String roleName, Set<Long> expectedVersions) {
 
-        User existing = getById(id);
+        User existing = findUser(id);
 
-        if (!existing.getEmail().equals(updated.getEmail())
-                && userRepository.existsByEmail(updated.getEmail())) {
+        // A write between this read and the flush still fails on the version column
+        if (expectedVersions != null && !expectedVersions.contains(existing.getVersion())) {
+            throw new PreconditionFailedException("User has been modified, reload it and retry");
+        }
+        String oldEmail = existing.getEmail();
+        boolean credentialsChanged = !oldEmail.equals(updated.getEmail());
+
+        if (credentialsChanged
+                && emailFilter.isTaken(updated.getEmail())) {
             throw new BusinessException("Email already exists");
         }
 
         existing.setName(updated.getName());
         existing.setEmail(updated.getEmail());
+        emailFilter.add(updated.getEmail());
 
-        if (updated.getPassword() != null && !updated.getPassword().isBlank()) {
-            existing.setPassword(passwordEncoder.encode(updated.getPassword()));
+        if (passwordHash != null) {
+            existing.setPassword(passwordHash);
+            credentialsChanged = true;
         }
 
+        // getId() on the lazy role does not load it
+        Long roleId = existing.getRole().getId();
+
         if (roleName != null) {
-            Role role = roleRepository.findByName(roleName)
+            RoleResponseDTO role = roleService.findByName(roleName)
                     .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
-            existing.setRole(role);
+            if (!role.getId().equals(roleId)) {
+                credentialsChanged = true;
+                roleId = role.getId();
+                existing.setRole(roleService.getReference(role));
+            }
+        }
+
+        // Tokens issued before an email, password or role change are no longer valid
+        if (credentialsChanged) {
+            existing.setTokenVersion(existing.getTokenVersion() + 1);
+        }
+
+        // Flush now so the response carries the incremented version
+        User saved = userRepository.saveAndFlush(existing);
+        boolean revoke = credentialsChanged;
+        UserResponseDTO response = toResponse(saved, roleService.findById(roleId)
+                .map(RoleResponseDTO::getName)
+                .orElse(null));
+        // Other nodes end the sessions of the old email too
+        eventOutbox.record(EventOutbox.USER_UPDATED, saved.getId(),
+                oldEmail.equals(saved.getEmail()) ? response : withPreviousEmail(response, oldEmail));
+
+        TransactionHooks.afterCommit(() -> {
+            userDetailsService.evict(oldEmail);
+            userDetailsService.evict(saved.getEmail());
+            responseCache.evictUser(saved.getId());
+            if (revoke) {
+                tokenRevocations.revoke(oldEmail);
+            }
+            autocomplete.put(response);
+            auditLog.record(AuditAction.USER_UPDATED, saved.getEmail(),
+                    "id=" + saved.getId() + " role=" + response.getRoleName()
+                            + (oldEmail.equals(saved.getEmail()) ? "" : " was=" + oldEmail)
+                            + (revoke ? " sessions-revoked" : ""));
+        });
+
+        return response;
+    }
+
+    private static Map<String, Object> withPreviousEmail(UserResponseDTO user, String previousEmail) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", user.getId());
+        payload.put("name", user.getName());
+        payload.put("email", user.getEmail());
+        payload.put("roleName", user.getRoleName());
+        payload.put(EventOutbox.PREVIOUS_EMAIL, previousEmail);
+        return payload;
+    }
+
+    // ROLES (primary role, additional roles and the permissions they add up to)
+    @Transactional(readOnly = true)
+    public UserRolesResponseDTO getRoles(Long id) {
+        return toRolesResponse(findUser(id));
+    }
+
+    // Replaces the additional roles; like a role change in update(), this ends existing sessions
+    @Transactional
+    @Timed(value = "app.users.operation", extraTags = {"operation", "roles"})
+    public UserRolesResponseDTO updateRoles(Long id, List<String> roleNames) {
+
+        User user = findUser(id);
+        Long primaryId = user.getRole().getId();
+
+        Set<Long> wanted = new HashSet<>();
+        Set<Role> roles = new HashSet<>();
+        List<String> names = new ArrayList<>();
+        for (String name : roleNames == null ? List.<String>of() : roleNames) {
+            RoleResponseDTO role = roleService.findByName(name)
+                    .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + name));
+            if (!role.getId().equals(primaryId) && wanted.add(role.getId())) {
+                roles.add(roleService.getReference(role));
+                names.add(role.getName());
+            }
+        }
+
+        Set<Long> current = new HashSet<>();
+        user.getAdditionalRoles().forEach(role -> current.add(role.getId()));
+        if (current.equals(wanted)) {
+            return toRolesResponse(user);
+        }
+
+        user.getAdditionalRoles().clear();
+        user.getAdditionalRoles().addAll(roles);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+
+        User saved = userRepository.saveAndFlush(user);
+        UserResponseDTO response = toResponse(saved, roleService.findById(primaryId)
+                .map(RoleResponseDTO::getName)
+                .orElse(null));
+        eventOutbox.record(EventOutbox.USER_UPDATED, saved.getId(), response);
+
+        TransactionHooks.afterCommit(() -> {
+            userDetailsService.evict(saved.getEmail());
+            responseCache.evictUser(saved.getId());
+            tokenRevocations.revoke(saved.getEmail());
+            autocomplete.put(response);
+            auditLog.record(AuditAction.USER_ROLES_UPDATED, saved.getEmail(),
+                    "id=" + saved.getId() + " additional=" + String.join(",", names));
+        });
+
+        return toRolesResponse(saved);
+    }
+
+    private UserRolesResponseDTO toRolesResponse(User user) {
+
+        RoleResponseDTO primary = roleService.findById(user.getRole().getId()).orElse(null);
+        List<RoleResponseDTO> additional = user.getAdditionalRoles().stream()
+                .map(role -> roleService.findById(role.getId()).orElse(null))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(RoleResponseDTO::getName))
+                .toList();
+
+        long permissions = primary == null ? 0L : primary.getPermissionMask();
+        for (RoleResponseDTO role : additional) {
+            permissions |= role.getPermissionMask();
         }
 
-        return userRepository.save(existing);
+        return new UserRolesResponseDTO(
+                user.getId(),
+                primary == null ? null : primary.getName(),
+                additional.stream().map(RoleResponseDTO::getName).toList(),
+                Permission.fromMask(permissions));
     }
 
     // DELETE
+    @Transactional
+    @Timed(value = "app.users.operation", extraTags = {"operation", "delete"})
     public void delete(Long id) {
-        User user = getById(id);
+        User user = findUser(id);
         userRepository.delete(user);
+        eventOutbox.record(EventOutbox.USER_DELETED, id,
+                Map.of("id", id, "email", user.getEmail()));
+        TransactionHooks.afterCommit(() -> {
+            userDetailsService.evict(user.getEmail());
+            responseCache.evictUser(id);
+            tokenRevocations.revoke(user.getEmail());
+            autocomplete.remove(id);
+            auditLog.record(AuditAction.USER_DELETED, user.getEmail(), "id=" + id);
+        });
     }
 }
@@ -0,0 +1,25 @@
+-- Schema of the application before versioned migrations, as its ddl-auto=update created it
+-- on MySQL (Hibernate's constraint names included). Databases created that way are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip it. Later changes
+-- go in V2__..., V3__...; never edit an applied migration.
+
+create table roles (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    role_id bigint not null,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table roles add constraint UKofx66keruapi6vyqpv6f2or37 unique (name);
+
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table users add constraint FKp56c1712k691lhsyewcssf40f foreign key (role_id) references roles (id);
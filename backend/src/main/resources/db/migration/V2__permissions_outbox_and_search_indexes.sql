@@ -0,0 +1,46 @@
+-- Token versions and optimistic locking on users, role permissions and additional roles,
+-- the change-event outbox, the search indexes, and a stable name for the email unique key.
+-- Existing users start at token and row version 0.
+
+alter table users add column token_version bigint not null default 0;
+
+alter table users add column version bigint not null default 0;
+
+alter table users drop constraint UK6dotkott2kjsp8vw4d0m25fb7;
+
+alter table users add constraint uk_users_email unique (email);
+
+create index idx_users_name_id on users (name, id);
+
+create index idx_users_role_name_id on users (role_id, name, id);
+
+create index idx_users_role_email on users (role_id, email);
+
+create table role_permissions (
+    role_id bigint not null,
+    permission enum ('AUDIT_READ','EVENTS_READ','ROLES_READ','ROLES_WRITE','USERS_DELETE','USERS_IMPORT','USERS_READ','USERS_WRITE') not null,
+    primary key (role_id, permission)
+) engine=InnoDB;
+
+alter table role_permissions add constraint FKn5fotdgk8d1xvo8nav9uv3muc foreign key (role_id) references roles (id);
+
+create table user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+) engine=InnoDB;
+
+alter table user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles (id);
+
+alter table user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users (id);
+
+create table outbox_events (
+    aggregate_id bigint not null,
+    created_at bigint not null,
+    id bigint not null auto_increment,
+    type varchar(32) not null,
+    payload varchar(2000) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_outbox_events_created_at on outbox_events (created_at);
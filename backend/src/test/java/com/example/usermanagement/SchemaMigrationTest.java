@@ -0,0 +1,93 @@
+package com.example.usermanagement;
+
+import com.example.usermanagement.model.OutboxEvent;
+import com.example.usermanagement.model.Role;
+import com.example.usermanagement.model.User;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The migrations against H2 in MySQL mode: from an empty database, and from one created by
+// ddl-auto=update before there were migrations. Both must end at the schema the entities map.
+class SchemaMigrationTest {
+
+	@Test
+	void emptyDatabaseMigratesToTheMappedSchema() {
+		String url = url("empty");
+		flyway(dataSource(url)).migrate();
+
+		validateMapping(url);
+	}
+
+	@Test
+	void databaseOfTheOldApplicationIsBaselinedAndUpgraded() {
+		String url = url("old");
+		DataSource dataSource = dataSource(url);
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+		// Created by ddl-auto=update, without a Flyway history table
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql"))
+				.execute(dataSource);
+		jdbc.update("insert into roles (name) values ('EMPLOYEE')");
+		jdbc.update("insert into users (name, email, password, role_id) values ('A', 'a@x.com', 'p', 1)");
+
+		Flyway flyway = flyway(dataSource);
+		flyway.migrate();
+
+		assertEquals("2", flyway.info().current().getVersion().getVersion());
+		assertEquals(0L, jdbc.queryForObject(
+				"select token_version + version from users where email = 'a@x.com'", Long.class));
+		assertEquals(1, jdbc.queryForObject(
+				"select count(*) from information_schema.table_constraints "
+						+ "where upper(constraint_name) = 'UK_USERS_EMAIL'", Integer.class));
+		assertThrows(DuplicateKeyException.class, () -> jdbc.update(
+				"insert into users (name, email, password, role_id) values ('B', 'a@x.com', 'p', 1)"));
+
+		validateMapping(url);
+	}
+
+	private static Flyway flyway(DataSource dataSource) {
+		return Flyway.configure()
+				.dataSource(dataSource)
+				.baselineOnMigrate(true)
+				.load();
+	}
+
+	// Hibernate's schema validator: every mapped table and column exists with a compatible type
+	private static void validateMapping(String url) {
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+				.applySetting("hibernate.connection.url", url)
+				.applySetting("hibernate.connection.username", "sa")
+				.applySetting("hibernate.hbm2ddl.auto", "validate")
+				.build();
+		try {
+			new MetadataSources(registry)
+					.addAnnotatedClasses(User.class, Role.class, OutboxEvent.class)
+					.buildMetadata()
+					.buildSessionFactory()
+					.close();
+		} finally {
+			StandardServiceRegistryBuilder.destroy(registry);
+		}
+	}
+
+	private static DataSource dataSource(String url) {
+		return new DriverManagerDataSource(url, "sa", "");
+	}
+
+	private static String url(String name) {
+		return "jdbc:h2:mem:migration-" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+	}
+}
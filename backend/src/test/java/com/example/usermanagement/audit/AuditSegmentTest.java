@@ -0,0 +1,129 @@
+package com.example.usermanagement.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditSegmentTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void rollsSegmentsAndScansByTimeRange() throws Exception {
+		AuditSegmentWriter writer = new AuditSegmentWriter(dir, 64 * 1024, Duration.ZERO);
+		writer.open();
+		for (int i = 0; i < 2_000; i++) {
+			writer.append(new AuditRecord(1_000 + i, AuditAction.USER_UPDATED,
+					"admin@x.com", "user" + i + "@x.com", "id=" + i + " role=EMPLOYEE"));
+		}
+		writer.close();
+
+		assertTrue(AuditSegments.list(dir).size() > 1);
+
+		List<AuditRecord> found = new AuditReader(dir).find(1_500, 1_600, record -> true, 1_000);
+		assertEquals(100, found.size());
+		assertEquals(1_500, found.get(0).timestamp());
+		assertEquals("user599@x.com", found.get(99).subject());
+		assertEquals(AuditAction.USER_UPDATED, found.get(99).action());
+
+		assertEquals(10, new AuditReader(dir).find(0, Long.MAX_VALUE, record -> true, 10).size());
+	}
+
+	@Test
+	void resumesAfterATornRecord() throws Exception {
+		AuditSegmentWriter writer = new AuditSegmentWriter(dir, 64 * 1024, Duration.ZERO);
+		writer.open();
+		for (int i = 0; i < 10; i++) {
+			writer.append(new AuditRecord(i + 1, AuditAction.LOGIN, "user@x.com", "user@x.com", null));
+		}
+		writer.close();
+
+		// A crash halfway through the eleventh record: length written, body not
+		Path segment = AuditSegments.list(dir).get(0);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			int end = end(mapped);
+			mapped.putInt(end, 200);
+			mapped.putInt(end + 4, 12345);
+			mapped.putLong(end + 8, 11);
+		}
+
+		writer = new AuditSegmentWriter(dir, 64 * 1024, Duration.ZERO);
+		writer.open();
+		writer.append(new AuditRecord(12, AuditAction.LOGIN_FAILED, null, "user@x.com", "127.0.0.1"));
+		writer.close();
+
+		List<AuditRecord> found = new AuditReader(dir).find(0, Long.MAX_VALUE, record -> true, 100);
+		assertEquals(11, found.size());
+		assertEquals(1, AuditSegments.list(dir).size());
+		AuditRecord last = found.get(10);
+		assertEquals(12, last.timestamp());
+		assertNull(last.actor());
+		assertEquals("127.0.0.1", last.detail());
+	}
+
+	@Test
+	void ringBufferHandsOverEveryElementOnce() throws Exception {
+		AuditRingBuffer<Long> buffer = new AuditRingBuffer<>(1_000);
+		assertEquals(1_024, buffer.capacity());
+
+		int producers = 4;
+		int perProducer = 50_000;
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			long base = (long) p * perProducer;
+			Thread thread = new Thread(() -> {
+				for (long i = 0; i < perProducer; i++) {
+					while (!buffer.offer(base + i)) {
+						Thread.onSpinWait();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		AtomicLong sum = new AtomicLong();
+		long count = 0;
+		while (count < (long) producers * perProducer) {
+			count += buffer.drain(sum::addAndGet, 256);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		long n = (long) producers * perProducer;
+		assertEquals(n * (n - 1) / 2, sum.get());
+		assertEquals(0, buffer.size());
+
+		for (int i = 0; i < 1_024; i++) {
+			assertTrue(buffer.offer((long) i));
+		}
+		assertFalse(buffer.offer(-1L));
+	}
+
+	private static int end(MappedByteBuffer segment) {
+		CRC32C crc = new CRC32C();
+		int offset = AuditSegments.HEADER_SIZE;
+		int length;
+		while ((length = AuditSegments.validRecord(segment, offset, crc)) > 0) {
+			offset += AuditSegments.RECORD_HEADER + length;
+		}
+		return offset;
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.usermanagement.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTest {
+
+	@Test
+	void evictsLeastRecentlyUsedEntryWhenFull() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(2, Duration.ofMinutes(1));
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.get("a");
+		cache.put("c", 3);
+
+		assertNull(cache.get("b"));
+		assertEquals(1, cache.get("a"));
+		assertEquals(3, cache.get("c"));
+		assertEquals(1, cache.evictionCount());
+	}
+
+	@Test
+	void overflowDropsTheLeastRecentlyUsedDownToNinetyPercent() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, i);
+		}
+		for (int i = 0; i < 5; i++) {
+			cache.get(i);
+		}
+		cache.put(10, 10);
+
+		assertEquals(9, cache.size());
+		assertEquals(2, cache.evictionCount());
+		assertNull(cache.get(5));
+		assertNull(cache.get(6));
+		for (int i = 0; i < 5; i++) {
+			assertEquals(i, cache.get(i));
+		}
+	}
+
+	@Test
+	void concurrentReadersAndWritersStayBounded() throws InterruptedException {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(100, Duration.ofMinutes(1));
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			int seed = t;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 20_000; i++) {
+					int key = (i * 31 + seed) % 1000;
+					assertEquals(key, cache.get(key, k -> k));
+					if (i % 100 == 0) {
+						cache.invalidate(key);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertTrue(cache.size() <= 100);
+	}
+
+	@Test
+	void expiredEntriesAreMisses() throws InterruptedException {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMillis(5));
+		cache.put("a", 1);
+		Thread.sleep(20);
+
+		assertNull(cache.get("a"));
+		assertEquals(1, cache.missCount());
+		assertEquals(1, cache.evictionCount());
+	}
+
+	@Test
+	void loadsAreCountedAndCached() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+		assertEquals(1, cache.get("a", k -> 1));
+		assertEquals(1, cache.get("a", k -> 2));
+		assertEquals(1, cache.hitCount());
+		assertEquals(1, cache.missCount());
+	}
+
+	@Test
+	void loadThatRacesAnInvalidationIsNotStored() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+		cache.get("a", k -> {
+			cache.invalidate("a");
+			return 1;
+		});
+
+		assertNull(cache.get("a"));
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.usermanagement.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncodedResponseTest {
+
+	private static final byte[] ROLES = ("[" + "{\"id\":1,\"name\":\"ADMIN\",\"permissions\":[\"USERS_READ\"]},".repeat(40)
+			+ "{\"id\":2,\"name\":\"EMPLOYEE\",\"permissions\":[]}]").getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void servesTheGzipCopyOnlyToClientsThatAcceptIt() throws IOException {
+		EncodedResponse response = EncodedResponse.of(ROLES, "abc", 1024, CacheControl.noCache());
+
+		ResponseEntity<byte[]> gzip = response.toResponseEntity("br, gzip;q=0.8");
+		assertEquals("\"abc-gzip\"", gzip.getHeaders().getETag());
+		assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, gzip.getHeaders().getVary().get(0));
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+			assertArrayEquals(ROLES, in.readAllBytes());
+		}
+
+		ResponseEntity<byte[]> identity = response.toResponseEntity("gzip;q=0");
+		assertEquals("\"abc\"", identity.getHeaders().getETag());
+		assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertArrayEquals(ROLES, identity.getBody());
+	}
+
+	@Test
+	void smallBodiesHaveNoGzipCopy() {
+		byte[] user = "{\"id\":1,\"name\":\"Admin\"}".getBytes(StandardCharsets.UTF_8);
+		EncodedResponse response = EncodedResponse.of(user, "3", 1024, CacheControl.noCache());
+
+		ResponseEntity<byte[]> entity = response.toResponseEntity("gzip");
+		assertEquals("\"3\"", entity.getHeaders().getETag());
+		assertTrue(entity.getHeaders().getVary().isEmpty());
+		assertEquals(user.length, response.size());
+	}
+
+	@Test
+	void parsesAcceptEncoding() {
+		assertTrue(EncodedResponse.acceptsGzip("gzip, deflate, br"));
+		assertTrue(EncodedResponse.acceptsGzip("GZIP;q=0.5"));
+		assertFalse(EncodedResponse.acceptsGzip("gzip;q=0.0"));
+		assertFalse(EncodedResponse.acceptsGzip("deflate, br"));
+		assertFalse(EncodedResponse.acceptsGzip("x-gzip"));
+		assertFalse(EncodedResponse.acceptsGzip(null));
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.usermanagement.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerformanceSettingsValidatorTest {
+
+	@Test
+	void defaultSettingsAreReported() throws IOException {
+		List<String> problems = validator(false).problems();
+
+		assertTrue(problems.stream().anyMatch(p -> p.startsWith("spring.jpa.show-sql")));
+		assertTrue(problems.stream().anyMatch(p -> p.startsWith("hibernate.format_sql")));
+		assertTrue(problems.stream().anyMatch(p -> p.startsWith("hibernate.jdbc.batch_size")));
+		assertTrue(problems.stream().anyMatch(p -> p.startsWith("MySQL cachePrepStmts")));
+	}
+
+	@Test
+	void schemaGenerationIsReported() throws IOException {
+		assertTrue(validator(false).problems().stream().noneMatch(p -> p.contains("ddl-auto")));
+
+		PerformanceSettingsValidator validator = validator(false,
+				Map.of("spring.jpa.hibernate.ddl-auto", "update"));
+		assertTrue(validator.problems().stream()
+				.anyMatch(p -> p.startsWith("spring.jpa.hibernate.ddl-auto=update")));
+	}
+
+	@Test
+	void prodProfileHasNoProblems() throws IOException {
+		assertEquals(List.of(), validator(true).problems());
+	}
+
+	private static PerformanceSettingsValidator validator(boolean prod) throws IOException {
+		return validator(prod, Map.of());
+	}
+
+	private static PerformanceSettingsValidator validator(boolean prod, Map<String, Object> overrides)
+			throws IOException {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(
+				new ResourcePropertySource("classpath:application.properties"));
+		if (prod) {
+			environment.getPropertySources().addFirst(
+					new ResourcePropertySource("classpath:application-prod.properties"));
+		}
+		environment.getPropertySources().addFirst(new MapPropertySource("overrides", overrides));
+		return new PerformanceSettingsValidator(environment);
+	}
+}
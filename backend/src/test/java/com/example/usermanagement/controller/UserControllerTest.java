@@ -0,0 +1,172 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.audit.AuditLog;
+import com.example.usermanagement.cache.EncodedResponse;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.events.EventOutbox;
+import com.example.usermanagement.exception.GlobalExceptionHandler;
+import com.example.usermanagement.model.Role;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.security.TokenRevocations;
+import com.example.usermanagement.service.CustomUserDetailsService;
+import com.example.usermanagement.service.EmailFilter;
+import com.example.usermanagement.service.ResponseCache;
+import com.example.usermanagement.service.RoleService;
+import com.example.usermanagement.service.UserAutocomplete;
+import com.example.usermanagement.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Conditional GET and PUT of /api/users/{id}; the ETag is the row version, 3 to begin with
+class UserControllerTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final ResponseCache responseCache = mock(ResponseCache.class);
+	private MockMvc mvc;
+
+	private long version = 3;
+	// Set to make the next flush fail as if another update committed after the read
+	private boolean concurrentUpdate;
+
+	@BeforeEach
+	void setUp() {
+		RoleService roleService = mock(RoleService.class);
+		when(roleService.findById(1L)).thenReturn(Optional.of(new RoleResponseDTO(1L, "USER")));
+		when(userRepository.findById(1L)).thenAnswer(call -> Optional.of(storedUser()));
+		when(userRepository.saveAndFlush(any(User.class))).thenAnswer(call -> {
+			if (concurrentUpdate) {
+				version++;
+				throw new ObjectOptimisticLockingFailureException(User.class, 1L);
+			}
+			User user = call.getArgument(0);
+			user.setVersion(++version);
+			return user;
+		});
+		// Big enough for a gzip copy
+		String body = "{\"id\":1,\"name\":\"" + "Ann ".repeat(500) + "\"}";
+		when(responseCache.user(1L)).thenAnswer(call -> EncodedResponse.of(body.getBytes(StandardCharsets.UTF_8),
+				String.valueOf(version), 1024, CacheControl.noCache()));
+
+		UserService userService = new UserService(userRepository, roleService, mock(PasswordEncoder.class),
+				mock(TokenRevocations.class), mock(CustomUserDetailsService.class), mock(UserAutocomplete.class),
+				mock(EmailFilter.class), mock(EventOutbox.class), mock(AuditLog.class), responseCache,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), 500);
+
+		UserController controller = new UserController();
+		ReflectionTestUtils.setField(controller, "userService", userService);
+		ReflectionTestUtils.setField(controller, "responseCache", responseCache);
+		ReflectionTestUtils.setField(controller, "objectMapper", JsonMapper.builder().build());
+		mvc = MockMvcBuilders.standaloneSetup(controller)
+				.setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+				.build();
+	}
+
+	@Test
+	void aMatchingIfNoneMatchIsAnswered304() throws Exception {
+		mvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+		mvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void theGzipRepresentationIsRevalidatedByItsOwnTag() throws Exception {
+		mvc.perform(get("/api/users/1")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.header(HttpHeaders.IF_NONE_MATCH, "\"3-gzip\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3-gzip\""));
+	}
+
+	@Test
+	void aCurrentIfMatchUpdatesAndReturnsTheNewTag() throws Exception {
+		update("\"3\"")
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+		// The tag of the gzip copy names the same version
+		update("\"4-gzip\"")
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+	}
+
+	@Test
+	void aStaleIfMatchIsRejectedWithoutWriting() throws Exception {
+		update("\"2\"").andExpect(status().isPreconditionFailed());
+		update("W/\"3\"").andExpect(status().isPreconditionFailed());
+		update("\"not-a-version\"").andExpect(status().isPreconditionFailed());
+
+		assertEquals(3, version);
+	}
+
+	@Test
+	void anyTagOfAListMayMatch() throws Exception {
+		update("\"1\", \"3\"").andExpect(status().isOk());
+		update("\"1\", W/\"4\", \"2\"").andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void aWildcardOrNoIfMatchSkipsTheCheck() throws Exception {
+		update("*").andExpect(status().isOk());
+		update(null).andExpect(status().isOk());
+
+		assertEquals(5, version);
+	}
+
+	@Test
+	void anUpdateThatLosesTheRaceAfterTheCheckIs412() throws Exception {
+		concurrentUpdate = true;
+
+		update("\"3\"").andExpect(status().isPreconditionFailed());
+		// Without If-Match the client asked for no precondition: a plain conflict
+		update(null).andExpect(status().isConflict());
+	}
+
+	private ResultActions update(String ifMatch) throws Exception {
+		var request = put("/api/users/1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Ann\",\"email\":\"ann@x.com\"}");
+		if (ifMatch != null) {
+			request.header(HttpHeaders.IF_MATCH, ifMatch);
+		}
+		return mvc.perform(request);
+	}
+
+	private User storedUser() {
+		Role role = new Role();
+		role.setId(1L);
+		User user = new User();
+		user.setId(1L);
+		user.setName("Ann");
+		user.setEmail("ann@x.com");
+		user.setRole(role);
+		user.setVersion(version);
+		return user;
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.usermanagement.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two embedded H2 databases stand in for the primary and a replica
+class ReplicaRoutingDataSourceTest {
+
+	private FlakyDataSource replica;
+	private ReplicaRoutingDataSource routing;
+	private JdbcTemplate jdbc;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+
+	@BeforeEach
+	void setUp() {
+		replica = new FlakyDataSource(h2("replica"));
+		routing = new ReplicaRoutingDataSource(h2("primary"), List.of(replica),
+				Duration.ofHours(1), Duration.ofSeconds(1), new SimpleMeterRegistry());
+
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		jdbc = new JdbcTemplate(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		RoutingContext.endRequest();
+		routing.close();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToTheReplica() {
+		assertEquals("REPLICA", readOnly.execute(status -> database()));
+		assertEquals("PRIMARY", readWrite.execute(status -> database()));
+		assertEquals("PRIMARY", database());
+	}
+
+	@Test
+	void readsAfterAWriteInTheSameRequestStayOnThePrimary() {
+		RoutingContext.beginRequest(false);
+		assertEquals("REPLICA", readOnly.execute(status -> database()));
+		readWrite.execute(status -> database());
+		assertEquals("PRIMARY", readOnly.execute(status -> database()));
+		assertTrue(RoutingContext.endRequest());
+
+		RoutingContext.beginRequest(true);
+		assertEquals("PRIMARY", readOnly.execute(status -> database()));
+		assertFalse(RoutingContext.endRequest());
+	}
+
+	@Test
+	void failingReplicaIsEjectedUntilItsHealthCheckPasses() {
+		replica.down = true;
+		assertEquals("PRIMARY", readOnly.execute(status -> database()));
+		assertEquals(0, routing.healthyReplicas());
+
+		replica.down = false;
+		assertEquals("PRIMARY", readOnly.execute(status -> database()));
+		routing.checkHealth();
+		assertEquals(1, routing.healthyReplicas());
+		assertEquals("REPLICA", readOnly.execute(status -> database()));
+	}
+
+	// The transaction manager the application runs with: Hibernate takes the connection
+	// when the transaction begins, before the read-only flag is bound to the thread, so
+	// the replica is only chosen because the lazy proxy waits for the first statement
+	@Test
+	void readOnlyJpaTransactionsGoToTheReplica() {
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(new LazyConnectionDataSourceProxy(routing));
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factory.setPackagesToScan("com.example.usermanagement.model");
+		factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+		factory.afterPropertiesSet();
+		EntityManagerFactory entityManagerFactory = factory.getObject();
+
+		try {
+			JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+			TransactionTemplate jpaReadOnly = new TransactionTemplate(transactionManager);
+			jpaReadOnly.setReadOnly(true);
+			TransactionTemplate jpaReadWrite = new TransactionTemplate(transactionManager);
+			EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+
+			assertEquals("REPLICA", jpaReadOnly.execute(status ->
+					entityManager.createNativeQuery("select database()").getSingleResult()));
+			assertEquals("PRIMARY", jpaReadWrite.execute(status ->
+					entityManager.createNativeQuery("select database()").getSingleResult()));
+		} finally {
+			factory.destroy();
+		}
+	}
+
+	private String database() {
+		return jdbc.queryForObject("select database()", String.class);
+	}
+
+	private static SimpleDriverDataSource h2(String name) {
+		return new SimpleDriverDataSource(new org.h2.Driver(),
+				"jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+	}
+
+	private static final class FlakyDataSource extends DelegatingDataSource {
+
+		volatile boolean down;
+
+		FlakyDataSource(SimpleDriverDataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (down) {
+				throw new SQLException("Connection refused");
+			}
+			return super.getConnection();
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package com.example.usermanagement.events;
+
+import com.example.usermanagement.controller.EventController;
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.model.OutboxEvent;
+import com.example.usermanagement.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class OutboxRelayTest {
+
+	private static final long OLD = System.currentTimeMillis() - 60_000;
+
+	private final TreeMap<Long, OutboxEvent> table = new TreeMap<>();
+	private final OutboxEventRepository repository = repository();
+	private final List<Long> relayed = new ArrayList<>();
+
+	@Test
+	void waitsForAHoleUntilTheNextEventIsSettled() {
+		OutboxRelay relay = relay();
+		insert(2, System.currentTimeMillis());
+
+		relay.relay();
+
+		assertEquals(List.of(), relayed);
+		assertEquals(0, relay.position());
+	}
+
+	@Test
+	void skippedIdIsMovedToTheEndWhenItsTransactionCommitsLate() {
+		OutboxRelay relay = relay();
+		insert(2, OLD);
+
+		relay.relay();
+		assertEquals(List.of(2L), relayed);
+		assertEquals(2, relay.position());
+		assertEquals(1, relay.holeCount());
+
+		// The insert of id 1 was a long transaction, not a rollback
+		insert(1, OLD);
+		insert(3, System.currentTimeMillis());
+		relay.relay();
+
+		// Relayed as offset 4, after everything consumers have already seen
+		assertEquals(List.of(2L, 3L, 1L), relayed);
+		assertEquals(4, relay.position());
+		assertEquals(0, relay.holeCount());
+		assertFalse(table.containsKey(1L));
+		assertEquals(List.of(4L), relay.eventsAfter(3, 10).stream().map(ChangeEventDTO::getOffset).toList());
+	}
+
+	@Test
+	void skippedIdsAreDroppedAfterRetention() throws InterruptedException {
+		OutboxRelay relay = relay(Duration.ZERO);
+		insert(3, OLD);
+
+		relay.relay();
+		assertEquals(2, relay.holeCount());
+
+		Thread.sleep(5);
+		relay.relay();
+		assertEquals(0, relay.holeCount());
+	}
+
+	@Test
+	void lateEventReachesTheFileAndSseSubscribers(@TempDir Path dir) throws Exception {
+		Path log = dir.resolve("events.ndjson");
+		FileEventSink file = new FileEventSink(log, JsonMapper.builder().build());
+		file.open();
+		SseEventSink sse = new SseEventSink(repository, Duration.ofMinutes(1), 100, 1);
+		OutboxRelay relay = relay(Duration.ofDays(7), file, sse);
+
+		EventController controller = new EventController();
+		ReflectionTestUtils.setField(controller, "outboxRelay", relay);
+		ReflectionTestUtils.setField(controller, "sseEventSink", sse);
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+		MockHttpServletResponse stream = mvc.perform(get("/api/events").param("after", "0")
+				.accept(MediaType.TEXT_EVENT_STREAM)).andReturn().getResponse();
+
+		insert(2, OLD);
+		relay.relay();
+		insert(1, OLD);
+		relay.relay();
+
+		file.close();
+		assertEquals(List.of(2L, 3L), Files.readAllLines(log).stream()
+				.map(line -> JsonMapper.builder().build().readTree(line).get("offset").asLong())
+				.toList());
+
+		String events = awaitContent(stream, "id:3");
+		assertTrue(events.contains("id:2"));
+		assertFalse(events.contains("id:1\n"));
+		sse.shutdown();
+	}
+
+	private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		for (int i = 0; i < 200; i++) {
+			String content = response.getContentAsString();
+			if (content.contains(expected)) {
+				return content;
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("No " + expected + " in " + response.getContentAsString());
+	}
+
+	private OutboxRelay relay() {
+		return relay(Duration.ofDays(7));
+	}
+
+	private OutboxRelay relay(Duration retention, EventSink... sinks) {
+		EventOutbox eventOutbox = mock(EventOutbox.class);
+		when(eventOutbox.reappend(any())).thenAnswer(call -> {
+			OutboxEvent row = table.remove(call.getArgument(0, OutboxEvent.class).getId());
+			if (row == null) {
+				return false;
+			}
+			insert(table.lastKey() + 1, row.getAggregateId(), row.getCreatedAt());
+			return true;
+		});
+
+		List<EventSink> all = new ArrayList<>(List.of(sinks));
+		all.add(events -> events.stream().map(ChangeEventDTO::getAggregateId).forEach(relayed::add));
+		OutboxRelay relay = new OutboxRelay(repository, eventOutbox, all, new SimpleMeterRegistry(),
+				false, Duration.ofMillis(200), 500, Duration.ofSeconds(10), 1000, retention);
+		relay.start();
+		return relay;
+	}
+
+	private OutboxEventRepository repository() {
+		OutboxEventRepository repository = mock(OutboxEventRepository.class);
+		when(repository.findMaxId()).thenAnswer(call -> table.isEmpty() ? 0L : table.lastKey());
+		when(repository.findAfter(anyLong(), any())).thenAnswer(call ->
+				new ArrayList<>(table.tailMap(call.getArgument(0, Long.class), false).values()));
+		when(repository.findBetween(anyLong(), anyLong(), any())).thenAnswer(call ->
+				new ArrayList<>(table.subMap(call.getArgument(0, Long.class), false,
+						call.getArgument(1, Long.class), true).values()));
+		when(repository.findByIds(anyCollection())).thenAnswer(call -> {
+			List<OutboxEvent> rows = new ArrayList<>();
+			for (Object id : call.getArgument(0, Collection.class)) {
+				if (table.containsKey((Long) id)) {
+					rows.add(table.get((Long) id));
+				}
+			}
+			return rows;
+		});
+		return repository;
+	}
+
+	private void insert(long id, long createdAt) {
+		insert(id, id, createdAt);
+	}
+
+	private void insert(long id, long aggregateId, long createdAt) {
+		OutboxEvent row = new OutboxEvent();
+		row.setId(id);
+		row.setType(EventOutbox.USER_UPDATED);
+		row.setAggregateId(aggregateId);
+		row.setPayload("{}");
+		row.setCreatedAt(createdAt);
+		table.put(id, row);
+	}
+}
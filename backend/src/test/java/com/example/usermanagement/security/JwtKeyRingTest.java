@@ -0,0 +1,262 @@
+package com.example.usermanagement.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPrivateKeySpec;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPrivateKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtKeyRingTest {
+
+	private static final Duration ROTATION = Duration.ofDays(7);
+	private static final Duration PUBLISH_AHEAD = Duration.ofMinutes(10);
+	private static final Duration RETENTION = Duration.ofDays(7);
+
+	private final MutableClock clock = new MutableClock();
+	private final List<JwtKeyRing> rings = new ArrayList<>();
+
+	@AfterEach
+	void stop() {
+		rings.forEach(JwtKeyRing::shutdown);
+	}
+
+	@Test
+	void keysArePublishedActivatedAndRetiredOnSchedule() {
+		JwtKeyRing ring = ring("");
+		String first = ring.signingKey().id();
+
+		clock.advance(ROTATION);
+		ring.rotate();
+		List<String> kids = kids(ring);
+		assertEquals(2, kids.size());
+		String second = kids.get(1);
+
+		// Published for verifiers to fetch, not signing yet
+		assertEquals(first, ring.signingKey().id());
+
+		clock.advance(PUBLISH_AHEAD);
+		ring.rotate();
+		assertEquals(second, ring.signingKey().id());
+
+		// Tokens the first key signed until now live for up to the retention
+		clock.advance(RETENTION.minusMillis(1));
+		ring.rotate();
+		assertNotNull(resolve(ring, first));
+
+		clock.advance(Duration.ofMillis(1));
+		ring.rotate();
+		assertFalse(kids(ring).contains(first));
+		assertThrows(JwtException.class, () -> resolve(ring, first));
+	}
+
+	@Test
+	void instancesSharingTheKeysDirUseTheSameKeys(@TempDir Path dir) throws IOException {
+		JwtKeyRing first = ring(dir.toString());
+		JwtKeyRing second = ring(dir.toString());
+
+		assertEquals(first.signingKey().id(), second.signingKey().id());
+		assertArrayEquals(first.signingKey().privateKey().getEncoded(),
+				second.signingKey().privateKey().getEncoded());
+
+		// The first to rotate writes the new key, the other reads it instead of making one
+		clock.advance(ROTATION);
+		first.rotate();
+		second.rotate();
+
+		assertEquals(kids(first), kids(second));
+		assertArrayEquals(first.jwks(), second.jwks());
+		try (var files = Files.list(dir)) {
+			assertEquals(2, files.count());
+		}
+	}
+
+	@Test
+	void unknownKidIsRejectedWhileTheReloadRunsInTheBackground(@TempDir Path dir) throws Exception {
+		JwtKeyRing ring = ring(dir.toString());
+		JwtKeyRing other = ring(dir.toString());
+		clock.advance(ROTATION);
+		other.rotate();
+		String kid = kids(other).get(1);
+
+		// A rotation holding the lock must not hold up requests
+		ReentrantLock lock = (ReentrantLock) ReflectionTestUtils.getField(ring, "lock");
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread holder = new Thread(() -> {
+			lock.lock();
+			try {
+				locked.countDown();
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} finally {
+				lock.unlock();
+			}
+		});
+		holder.start();
+		locked.await();
+
+		assertTimeoutPreemptively(Duration.ofSeconds(1),
+				() -> assertThrows(JwtException.class, () -> resolve(ring, kid)));
+
+		release.countDown();
+		holder.join();
+		for (int i = 0; i < 200 && !kids(ring).contains(kid); i++) {
+			Thread.sleep(10);
+		}
+		assertNotNull(resolve(ring, kid));
+	}
+
+	@Test
+	void jwksEncodesKnownKeysAsUnsignedFixedLengthBase64Url(@TempDir Path dir) throws Exception {
+
+		// RSA modulus with the top bit set: BigInteger adds a sign byte that must not appear
+		byte[] modulus = new byte[256];
+		modulus[0] = (byte) 0xC3;
+		modulus[255] = 0x01;
+		BigInteger n = new BigInteger(1, modulus);
+		KeyFactory rsa = KeyFactory.getInstance("RSA");
+		writeKey(dir, "rsa", "RS256", clock.millis() - 1,
+				rsa.generatePrivate(new RSAPrivateKeySpec(n, BigInteger.valueOf(3))),
+				rsa.generatePublic(new RSAPublicKeySpec(n, BigInteger.valueOf(65537))));
+
+		// 379 * G on P-256: x has a leading zero byte, y has its top bit set
+		byte[] x = HexFormat.of().parseHex("005543894af3d00ed7d740abdbd75c96b06877b787db5f70eea78b90a8d7c00a");
+		byte[] y = HexFormat.of().parseHex("bb4c85a3d8ea29efaafa24406912dd84d5b14dc32bf656ef6c6bd58a5d943f92");
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		ECParameterSpec p256 = ((ECPublicKey) generator.generateKeyPair().getPublic()).getParams();
+		KeyFactory ec = KeyFactory.getInstance("EC");
+		writeKey(dir, "ec", "ES256", clock.millis(),
+				ec.generatePrivate(new ECPrivateKeySpec(BigInteger.valueOf(379), p256)),
+				ec.generatePublic(new ECPublicKeySpec(
+						new ECPoint(new BigInteger(1, x), new BigInteger(1, y)), p256)));
+
+		JsonNode keys = JsonMapper.builder().build().readTree(ring(dir.toString()).jwks()).get("keys");
+		assertEquals(2, keys.size());
+
+		JsonNode rsaJwk = keys.get(0);
+		assertEquals("rsa", rsaJwk.get("kid").asString());
+		assertEquals("RSA", rsaJwk.get("kty").asString());
+		assertEquals(base64Url(modulus), rsaJwk.get("n").asString());
+		assertEquals("AQAB", rsaJwk.get("e").asString());
+
+		JsonNode ecJwk = keys.get(1);
+		assertEquals("ec", ecJwk.get("kid").asString());
+		assertEquals("P-256", ecJwk.get("crv").asString());
+		assertEquals(base64Url(x), ecJwk.get("x").asString());
+		assertEquals(base64Url(y), ecJwk.get("y").asString());
+		assertTrue(ecJwk.get("x").asString().startsWith("AF"));
+	}
+
+	private JwtKeyRing ring(String keysDir) {
+		JwtKeyRing ring = new JwtKeyRing("ES256", keysDir, ROTATION, PUBLISH_AHEAD, RETENTION, clock);
+		ring.start();
+		rings.add(ring);
+		return ring;
+	}
+
+	private static Key resolve(JwtKeyRing ring, String kid) {
+		return ring.resolveSigningKey(Jwts.jwsHeader().setKeyId(kid), (Claims) null);
+	}
+
+	// In order of creation
+	private static List<String> kids(JwtKeyRing ring) {
+		List<String> kids = new ArrayList<>();
+		for (JsonNode key : JsonMapper.builder().build().readTree(ring.jwks()).get("keys")) {
+			kids.add(key.get("kid").asString());
+		}
+		return kids;
+	}
+
+	private static String base64Url(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	// Same format JwtKeyRing writes
+	private static void writeKey(Path dir, String kid, String alg, long created,
+								 PrivateKey privateKey, PublicKey publicKey)
+			throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty("kid", kid);
+		properties.setProperty("alg", alg);
+		properties.setProperty("created", Long.toString(created));
+		properties.setProperty("private", Base64.getEncoder().encodeToString(privateKey.getEncoded()));
+		properties.setProperty("public", Base64.getEncoder().encodeToString(publicKey.getEncoded()));
+		try (Writer writer = Files.newBufferedWriter(dir.resolve(kid + ".key"))) {
+			properties.store(writer, null);
+		}
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private volatile long millis = System.currentTimeMillis();
+
+		void advance(Duration duration) {
+			millis += duration.toMillis();
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
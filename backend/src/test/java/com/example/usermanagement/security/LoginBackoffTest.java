@@ -0,0 +1,64 @@
+package com.example.usermanagement.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginBackoffTest {
+
+	@Test
+	void delayDoublesWithEachFailureUpToTheCap() {
+		LoginBackoff backoff = new LoginBackoff(2, Duration.ofSeconds(1), Duration.ofSeconds(8), 100);
+
+		backoff.recordFailure("a");
+		assertEquals(0L, backoff.blockedFor("a"));
+
+		long[] expected = {1000, 2000, 4000, 8000, 8000, 8000};
+		for (long delay : expected) {
+			backoff.recordFailure("a");
+			long blocked = backoff.blockedFor("a");
+			assertTrue(blocked <= delay && blocked > delay - 500, delay + " vs " + blocked);
+		}
+	}
+
+	@Test
+	void successClearsTheFailures() {
+		LoginBackoff backoff = new LoginBackoff(1, Duration.ofSeconds(1), Duration.ofSeconds(8), 100);
+		backoff.recordFailure("a");
+		assertTrue(backoff.blockedFor("a") > 0);
+
+		backoff.recordSuccess("a");
+
+		assertEquals(0L, backoff.blockedFor("a"));
+		assertEquals(0, backoff.size());
+	}
+
+	@Test
+	void failuresAreForgottenAfterAQuietPeriod() throws InterruptedException {
+		LoginBackoff backoff = new LoginBackoff(1, Duration.ofMillis(10), Duration.ofMillis(20), 100);
+		backoff.recordFailure("a");
+		backoff.recordFailure("a");
+
+		Thread.sleep(40);
+		assertEquals(0L, backoff.blockedFor("a"));
+
+		// Counting starts over: the initial delay, not the doubled one
+		backoff.recordFailure("a");
+		assertTrue(backoff.blockedFor("a") <= 10);
+	}
+
+	@Test
+	void evictionKeepsTheMapBounded() {
+		LoginBackoff backoff = new LoginBackoff(1, Duration.ofSeconds(1), Duration.ofMinutes(1), 100);
+
+		for (int i = 0; i < 1000; i++) {
+			backoff.recordFailure("key-" + i);
+		}
+
+		assertTrue(backoff.size() <= 100);
+		assertTrue(backoff.size() >= 90);
+	}
+}
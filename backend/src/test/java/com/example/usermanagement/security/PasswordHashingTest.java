@@ -0,0 +1,189 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.datasource.ReadYourWrites;
+import com.example.usermanagement.exception.GlobalExceptionHandler;
+import com.example.usermanagement.exception.HashingCapacityExceededException;
+import com.example.usermanagement.repository.UserCredentials;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.service.CustomUserDetailsService;
+import com.example.usermanagement.service.RoleRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PasswordHashingTest {
+
+	private static final String EMAIL = "a@x.com";
+
+	private PasswordHashing hashing;
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void stop() {
+		release.countDown();
+		if (hashing != null) {
+			hashing.shutdown();
+		}
+	}
+
+	@Test
+	void theConfiguredAlgorithmEncodesAndEveryKnownFormatStillMatches() {
+		String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+		for (String algorithm : List.of("bcrypt", "argon2", "pbkdf2")) {
+			PasswordEncoder encoder = hashing(algorithm, 1, 1, Duration.ofSeconds(10)).encoder();
+			String encoded = encoder.encode("secret");
+
+			assertTrue(encoded.startsWith("{" + algorithm + "}"), encoded);
+			assertTrue(encoder.matches("secret", encoded));
+			assertFalse(encoder.matches("wrong", encoded));
+			// Hashes stored before the {id} prefix are plain BCrypt
+			assertTrue(encoder.matches("secret", legacy));
+			assertTrue(encoder.upgradeEncoding(legacy));
+			hashing.shutdown();
+		}
+
+		assertThrows(IllegalArgumentException.class,
+				() -> hashing("md5", 1, 1, Duration.ofSeconds(10)));
+	}
+
+	@Test
+	void loginWithALegacyHashStoresTheUpgradedOne() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findCredentialsByEmail(EMAIL)).thenReturn(List.of(new UserCredentials(
+				EMAIL, new BCryptPasswordEncoder(4).encode("secret"), "USER", 0L, 1L, null)));
+		CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository,
+				mock(RoleRegistry.class), new ReadYourWrites(false, Duration.ofSeconds(5), 100),
+				mock(PlatformTransactionManager.class), JsonMapper.builder().build(), 100, Duration.ofMinutes(5));
+
+		// Wired the way Spring Boot wires the UserDetailsService, encoder and password service beans
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+		provider.setPasswordEncoder(hashing("argon2", 1, 4, Duration.ofSeconds(10)).offloadingEncoder());
+		provider.setUserDetailsPasswordService(userDetailsService);
+
+		provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, "secret"));
+
+		verify(userRepository).updatePassword(eq(EMAIL), startsWith("{argon2}"));
+	}
+
+	@Test
+	void aLoginWithACurrentHashIsNotRewritten() {
+		PasswordHashing current = hashing("bcrypt", 1, 4, Duration.ofSeconds(10));
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findCredentialsByEmail(EMAIL)).thenReturn(List.of(new UserCredentials(
+				EMAIL, current.encoder().encode("secret"), "USER", 0L, 1L, null)));
+		CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository,
+				mock(RoleRegistry.class), new ReadYourWrites(false, Duration.ofSeconds(5), 100),
+				mock(PlatformTransactionManager.class), JsonMapper.builder().build(), 100, Duration.ofMinutes(5));
+
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+		provider.setPasswordEncoder(current.offloadingEncoder());
+		provider.setUserDetailsPasswordService(userDetailsService);
+
+		provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, "secret"));
+
+		verify(userRepository, never()).updatePassword(anyString(), anyString());
+	}
+
+	@Test
+	void aFullQueueIsRejectedWithoutWaiting() throws InterruptedException {
+		hashing("bcrypt", 1, 1, Duration.ofSeconds(30));
+		occupyThePool();
+		hashing.getExecutor().submit(this::awaitRelease);
+
+		HashingCapacityExceededException ex = assertThrows(HashingCapacityExceededException.class,
+				() -> hashing.offloadingEncoder().encode("secret"));
+
+		assertTrue(ex.getRetryAfterSeconds() >= 1);
+	}
+
+	@Test
+	void aQueuedHashThatWaitsTooLongIsAbandoned() throws InterruptedException {
+		hashing("bcrypt", 1, 1, Duration.ofMillis(50));
+		occupyThePool();
+
+		assertThrows(HashingCapacityExceededException.class,
+				() -> hashing.offloadingEncoder().matches("secret", "{bcrypt}$2a$04$invalid"));
+		// The abandoned task was cancelled and no longer holds the queue slot
+		assertTrue(hashing.getExecutor().getQueue().isEmpty());
+	}
+
+	@Test
+	void exceededCapacityIsA503WithRetryAfter() throws Exception {
+		hashing("bcrypt", 1, 1, Duration.ofMillis(50));
+		occupyThePool();
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(new HashingController(hashing))
+				.setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+				.build();
+
+		mvc.perform(post("/hash"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "2"));
+	}
+
+	private PasswordHashing hashing(String algorithm, int threads, int queueCapacity, Duration maxWait) {
+		hashing = new PasswordHashing(algorithm, 4, threads, queueCapacity, maxWait, Duration.ofSeconds(2));
+		return hashing;
+	}
+
+	// Blocks the single hashing thread until the test ends
+	private void occupyThePool() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		hashing.getExecutor().submit(() -> {
+			started.countDown();
+			awaitRelease();
+		});
+		started.await();
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@RestController
+	static class HashingController {
+
+		private final PasswordHashing hashing;
+
+		HashingController(PasswordHashing hashing) {
+			this.hashing = hashing;
+		}
+
+		@PostMapping("/hash")
+		String hash() {
+			return hashing.offloadingEncoder().encode("secret");
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.usermanagement.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionAuthorizationManagerTest {
+
+	@Test
+	void grantsOnlyWhenEveryRequiredBitIsHeld() {
+		Authentication reader = authenticated(Permission.mask(Permission.USERS_READ, Permission.EVENTS_READ));
+
+		assertTrue(granted(PermissionAuthorizationManager.require(Permission.USERS_READ), reader));
+		assertFalse(granted(PermissionAuthorizationManager.require(
+				Permission.USERS_READ, Permission.USERS_WRITE), reader));
+		assertTrue(granted(PermissionAuthorizationManager.require(Permission.values()),
+				authenticated(Permission.ALL)));
+	}
+
+	@Test
+	void deniesAnonymousAndForeignPrincipals() {
+		PermissionAuthorizationManager<Object> manager =
+				PermissionAuthorizationManager.require(Permission.USERS_READ);
+
+		assertFalse(granted(manager, new AnonymousAuthenticationToken("key", "anonymousUser",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"))));
+		assertFalse(granted(manager, UsernamePasswordAuthenticationToken.authenticated(
+				"someone", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"))));
+	}
+
+	@Test
+	void masksRoundTrip() {
+		long mask = Permission.mask(Permission.ROLES_WRITE, Permission.USERS_DELETE);
+
+		assertEquals(Set.of(Permission.ROLES_WRITE, Permission.USERS_DELETE), Permission.fromMask(mask));
+		assertEquals(Set.of(Permission.values()), Permission.fromMask(-1L));
+	}
+
+	private static boolean granted(PermissionAuthorizationManager<Object> manager, Authentication authentication) {
+		return manager.authorize(() -> authentication, new Object()).isGranted();
+	}
+
+	private static Authentication authenticated(long permissions) {
+		UserPrincipal principal = new UserPrincipal("a@x.com", "", List.of(), 0L, permissions);
+		return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.usermanagement.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+	@Test
+	void burstIsAllowedThenOneRequestPerRefill() throws InterruptedException {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofMillis(50), 100);
+
+		assertEquals(0L, limiter.tryAcquire("a"));
+		assertEquals(0L, limiter.tryAcquire("a"));
+		assertEquals(0L, limiter.tryAcquire("a"));
+		long wait = limiter.tryAcquire("a");
+		assertTrue(wait > 0);
+
+		TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+		assertEquals(0L, limiter.tryAcquire("a"));
+		assertTrue(limiter.tryAcquire("a") > 0);
+
+		// Buckets are per key
+		assertEquals(0L, limiter.tryAcquire("b"));
+	}
+
+	@Test
+	void rejectionReturnsTheTimeUntilTheNextToken() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMinutes(1), 100);
+
+		assertEquals(0L, limiter.tryAcquire("a"));
+		long wait = limiter.tryAcquire("a");
+
+		assertTrue(wait <= TimeUnit.MINUTES.toNanos(1));
+		assertTrue(wait > TimeUnit.SECONDS.toNanos(59));
+	}
+
+	@Test
+	void evictionKeepsTheMapBounded() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMinutes(1), 100);
+
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(0L, limiter.tryAcquire("key-" + i));
+		}
+
+		assertTrue(limiter.size() <= 100);
+		assertTrue(limiter.size() >= 90);
+	}
+}
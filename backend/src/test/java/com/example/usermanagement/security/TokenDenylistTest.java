@@ -0,0 +1,80 @@
+package com.example.usermanagement.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenDenylistTest {
+
+	@Test
+	void deniedIdsExpireWithTheirToken() throws InterruptedException {
+		TokenDenylist denylist = new TokenDenylist(new InMemoryDenylistStore());
+
+		assertTrue(denylist.deny("a", System.currentTimeMillis() + 50));
+		assertFalse(denylist.deny("a", System.currentTimeMillis() + 50));
+		assertTrue(denylist.isDenied("a"));
+
+		Thread.sleep(100);
+		assertFalse(denylist.isDenied("a"));
+	}
+
+	@Test
+	void expiredIdsAreDroppedAMinuteBucketAtATime() {
+		long now = System.currentTimeMillis();
+		// Loaded entries are normally live; these expired two minutes ago
+		TokenDenylist denylist = new TokenDenylist(new DenylistStore() {
+			@Override
+			public Map<String, Long> load(long at) {
+				return Map.of("old-1", now - 120_000, "old-2", now - 120_000);
+			}
+
+			@Override
+			public void save(String id, long expiresAt) {
+			}
+		});
+		denylist.load();
+		assertEquals(2, denylist.size());
+		assertFalse(denylist.isDenied("old-1"));
+
+		denylist.deny("new", now + 120_000);
+
+		assertEquals(1, denylist.size());
+		assertTrue(denylist.isDenied("new"));
+	}
+
+	@Test
+	void fileStoreKeepsLiveEntriesAcrossRestarts(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("denylist.log");
+		long now = System.currentTimeMillis();
+
+		FileDenylistStore store = new FileDenylistStore(file);
+		TokenDenylist denylist = new TokenDenylist(store);
+		denylist.load();
+		denylist.deny("live", now + 60_000);
+		store.save("expired", now - 1);
+		store.close();
+		// A line torn by a crash while appending
+		Files.writeString(file, "torn", StandardOpenOption.APPEND);
+
+		FileDenylistStore reopened = new FileDenylistStore(file);
+		assertEquals(Map.of("live", now + 60_000), reopened.load(now));
+		reopened.close();
+
+		// Compacted at load: only the live entry is left in the file
+		assertEquals(1, Files.readAllLines(file).size());
+
+		TokenDenylist restarted = new TokenDenylist(new FileDenylistStore(file));
+		restarted.load();
+		assertTrue(restarted.isDenied("live"));
+		assertFalse(restarted.isDenied("expired"));
+	}
+}
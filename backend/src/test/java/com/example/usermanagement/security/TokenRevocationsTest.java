@@ -0,0 +1,34 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.dtos.responseDto.ChangeEventDTO;
+import com.example.usermanagement.events.EventOutbox;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationsTest {
+
+	@Test
+	void userEventsFromOtherNodesRevokeTheCurrentAndPreviousEmail() {
+		JwtService jwtService = mock(JwtService.class);
+		when(jwtService.getAccessTtl()).thenReturn(60_000L);
+		TokenRevocations revocations = new TokenRevocations(jwtService, JsonMapper.builder().build());
+		long issuedAt = System.currentTimeMillis() - 1000;
+
+		revocations.onChange(new ChangeEventDTO(1, EventOutbox.USER_UPDATED, 7L, issuedAt,
+				"{\"id\":7,\"email\":\"new@x.com\",\"previousEmail\":\"old@x.com\"}"));
+		revocations.onChange(new ChangeEventDTO(2, EventOutbox.USER_DELETED, 8L, issuedAt,
+				"{\"id\":8,\"email\":\"gone@x.com\"}"));
+		revocations.onChange(new ChangeEventDTO(3, EventOutbox.USER_CREATED, 9L, issuedAt,
+				"{\"id\":9,\"email\":\"created@x.com\"}"));
+
+		assertTrue(revocations.isRevoked("new@x.com", issuedAt));
+		assertTrue(revocations.isRevoked("old@x.com", issuedAt));
+		assertTrue(revocations.isRevoked("gone@x.com", issuedAt));
+		assertFalse(revocations.isRevoked("created@x.com", issuedAt));
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dtos.responseDto.LoginResponseDTO;
+import com.example.usermanagement.security.InMemoryDenylistStore;
+import com.example.usermanagement.security.JwtKeyRing;
+import com.example.usermanagement.security.JwtService;
+import com.example.usermanagement.security.TokenClaims;
+import com.example.usermanagement.security.TokenDenylist;
+import com.example.usermanagement.security.UserPrincipal;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthTokenServiceTest {
+
+	private static final String EMAIL = "a@x.com";
+
+	private final JwtKeyRing keyRing = new JwtKeyRing("ES256", "", Duration.ofDays(7),
+			Duration.ofMinutes(10), Duration.ofDays(7));
+	private final JwtService jwtService = new JwtService(keyRing, Duration.ofMinutes(15), Duration.ofDays(7));
+	private final TokenDenylist denylist = new TokenDenylist(new InMemoryDenylistStore());
+	private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+	private final AuthTokenService tokens = new AuthTokenService(jwtService, denylist, userDetailsService);
+
+	@BeforeEach
+	void start() {
+		keyRing.start();
+		when(userDetailsService.loadUserByUsername(EMAIL)).thenAnswer(call -> principal(0));
+	}
+
+	@AfterEach
+	void stop() {
+		keyRing.shutdown();
+	}
+
+	@Test
+	void refreshRotatesTheRefreshTokenWithinTheFamily() {
+		LoginResponseDTO login = tokens.issue(principal(0));
+
+		LoginResponseDTO refreshed = tokens.refresh(login.getRefreshToken());
+
+		assertNotEquals(login.getRefreshToken(), refreshed.getRefreshToken());
+		TokenClaims before = jwtService.verify(login.getRefreshToken());
+		TokenClaims after = jwtService.verify(refreshed.getRefreshToken());
+		assertEquals(before.getFamily(), after.getFamily());
+		assertTrue(denylist.isDenied(before.getId()));
+		assertEquals(EMAIL, jwtService.verify(refreshed.getToken()).getSubject());
+
+		// The rotated token is the one that works next
+		tokens.refresh(refreshed.getRefreshToken());
+	}
+
+	@Test
+	void replayOfARotatedRefreshTokenRevokesTheWholeFamily() {
+		LoginResponseDTO login = tokens.issue(principal(0));
+		LoginResponseDTO refreshed = tokens.refresh(login.getRefreshToken());
+
+		assertThrows(JwtException.class, () -> tokens.refresh(login.getRefreshToken()));
+
+		// The legitimate holder's newer token is revoked with it
+		assertThrows(JwtException.class, () -> tokens.refresh(refreshed.getRefreshToken()));
+		assertTrue(denylist.isDenied(jwtService.verify(login.getRefreshToken()).getFamily()));
+
+		// Other logins of the same user are separate families
+		tokens.refresh(tokens.issue(principal(0)).getRefreshToken());
+	}
+
+	@Test
+	void tokenVersionChangeEndsTheFamily() {
+		LoginResponseDTO login = tokens.issue(principal(0));
+		when(userDetailsService.loadUserByUsername(EMAIL)).thenAnswer(call -> principal(1));
+
+		assertThrows(JwtException.class, () -> tokens.refresh(login.getRefreshToken()));
+		assertTrue(denylist.isDenied(jwtService.verify(login.getRefreshToken()).getFamily()));
+	}
+
+	@Test
+	void logoutWithAMalformedRefreshTokenStillRevokesTheAccessToken() {
+		LoginResponseDTO login = tokens.issue(principal(0));
+		String tampered = login.getRefreshToken().substring(0, login.getRefreshToken().length() - 4) + "AAAA";
+
+		tokens.logout(login.getToken(), "not-a-jwt");
+		tokens.logout(login.getToken(), tampered);
+		tokens.logout(login.getToken(), "a.b");
+
+		assertTrue(denylist.isDenied(jwtService.verify(login.getToken()).getId()));
+		// The refresh token itself was never identified, so its family lives on
+		tokens.refresh(login.getRefreshToken());
+	}
+
+	private static UserPrincipal principal(long tokenVersion) {
+		return new UserPrincipal(EMAIL, "", List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE")), tokenVersion);
+	}
+}
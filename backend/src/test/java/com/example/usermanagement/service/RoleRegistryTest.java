@@ -0,0 +1,86 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.Role;
+import com.example.usermanagement.repository.RoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoleRegistryTest {
+
+	private final RoleRepository roleRepository = mock(RoleRepository.class);
+	private final RoleRegistry registry = new RoleRegistry(roleRepository, Duration.ofHours(1));
+
+	@AfterEach
+	void stop() {
+		registry.shutdown();
+	}
+
+	@Test
+	void unknownRolesAreLoadedInTheBackgroundOnceForAllMisses() throws InterruptedException {
+		CountDownLatch reloading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(roleRepository.findAllWithPermissions())
+				.thenReturn(List.of(role(1L, "USER")))
+				.thenAnswer(call -> {
+					reloading.countDown();
+					release.await();
+					return List.of(role(1L, "USER"), role(2L, "AUDITOR"));
+				});
+		registry.start();
+		// The last reload was long enough ago for a miss to trigger one
+		ReflectionTestUtils.setField(registry, "lastRefresh", 0L);
+
+		// Misses answer at once while the reload is stuck on the database
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			assertTrue(registry.findByName("AUDITOR").isEmpty());
+			reloading.await();
+			for (int i = 0; i < 100; i++) {
+				assertTrue(registry.findByName("ghost-" + i).isEmpty());
+				assertTrue(registry.findById(100L + i).isEmpty());
+			}
+		});
+		release.countDown();
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (registry.findByName("auditor").isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(2L, registry.findByName("auditor").orElseThrow().getId());
+		verify(roleRepository, times(2)).findAllWithPermissions();
+	}
+
+	@Test
+	void missesRightAfterAReloadDoNotReloadAgain() throws InterruptedException {
+		when(roleRepository.findAllWithPermissions()).thenReturn(List.of(role(1L, "USER")));
+		registry.start();
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(registry.findByName("ghost-" + i).isEmpty());
+		}
+		Thread.sleep(50);
+
+		verify(roleRepository, times(1)).findAllWithPermissions();
+	}
+
+	private static Role role(Long id, String name) {
+		Role role = new Role();
+		role.setId(id);
+		role.setName(name);
+		role.setPermissions(Set.of());
+		return role;
+	}
+}
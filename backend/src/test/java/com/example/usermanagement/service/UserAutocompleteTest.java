@@ -0,0 +1,48 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserAutocompleteTest {
+
+	private final UserRepository repository = mock(UserRepository.class);
+	private final UserAutocomplete autocomplete = new UserAutocomplete(repository,
+			mock(PlatformTransactionManager.class), true, Duration.ofMinutes(10));
+
+	@Test
+	void writesDuringAReloadSurviveTheSwap() {
+		UserResponseDTO ann = new UserResponseDTO(1L, "Ann Lee", "ann@x.com", "EMPLOYEE");
+		UserResponseDTO bob = new UserResponseDTO(2L, "Bob Stone", "bob@x.com", "EMPLOYEE");
+		when(repository.streamAll()).thenReturn(Stream.of(ann, bob));
+		autocomplete.reload();
+
+		// The snapshot still has Ann and Bob as they were; both change while it is read
+		when(repository.streamAll()).thenAnswer(call -> {
+			autocomplete.put(new UserResponseDTO(1L, "Ann Carter", "ann@x.com", "EMPLOYEE"));
+			autocomplete.remove(2L);
+			autocomplete.put(new UserResponseDTO(3L, "Cid Moss", "cid@x.com", "EMPLOYEE"));
+			return Stream.of(ann, bob);
+		});
+		autocomplete.reload();
+
+		assertEquals(List.of(), autocomplete.suggest("lee", 10));
+		assertEquals(List.of(1L), ids(autocomplete.suggest("carter", 10)));
+		assertEquals(List.of(), autocomplete.suggest("bob", 10));
+		assertEquals(List.of(3L), ids(autocomplete.suggest("cid", 10)));
+		assertEquals(2, autocomplete.size());
+	}
+
+	private static List<Long> ids(List<UserResponseDTO> users) {
+		return users.stream().map(UserResponseDTO::getId).toList();
+	}
+}
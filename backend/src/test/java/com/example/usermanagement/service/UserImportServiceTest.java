@@ -0,0 +1,172 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.audit.AuditLog;
+import com.example.usermanagement.dtos.requestDto.UserRequestDto;
+import com.example.usermanagement.dtos.responseDto.BulkImportResponseDTO;
+import com.example.usermanagement.dtos.responseDto.BulkImportRowResultDTO;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.events.EventOutbox;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.security.PasswordHashing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// An embedded H2 database holds the users table; repository reads are answered from it
+class UserImportServiceTest {
+
+	private final RoleService roleService = mock(RoleService.class);
+	private final EmailFilter emailFilter = mock(EmailFilter.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final PasswordHashing passwordHashing = new PasswordHashing("bcrypt", 4, 1, 1,
+			Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+	private JdbcTemplate jdbc;
+	private UserImportService importer;
+
+	@BeforeEach
+	void setUp() {
+		SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+				"jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		jdbc = new JdbcTemplate(dataSource);
+		// Emails compare case-insensitively, as under MySQL's default collation
+		jdbc.execute("create table users (id bigint auto_increment primary key, name varchar(255) not null, " +
+				"email varchar_ignorecase(255) not null unique, password varchar(255) not null, role_id bigint not null, " +
+				"token_version bigint not null, version bigint not null)");
+		NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbc);
+
+		when(roleService.findByName("USER")).thenReturn(Optional.of(new RoleResponseDTO(1L, "USER")));
+		when(userRepository.findExistingEmails(anyCollection())).thenAnswer(call -> named.queryForList(
+				"select email from users where email in (:emails)",
+				Map.of("emails", call.<Collection<String>>getArgument(0)), String.class));
+		when(userRepository.findViewsByEmails(anyCollection())).thenAnswer(call -> named.query(
+				"select id, name, email from users where email in (:emails)",
+				Map.of("emails", call.<Collection<String>>getArgument(0)),
+				(rs, i) -> new UserResponseDTO(rs.getLong(1), rs.getString(2), rs.getString(3), "USER")));
+
+		importer = new UserImportService(userRepository, roleService, mock(UserAutocomplete.class),
+				emailFilter, mock(EventOutbox.class), mock(AuditLog.class), passwordHashing, jdbc,
+				new TransactionTemplate(new DataSourceTransactionManager(dataSource)), 2, 10, 100);
+	}
+
+	@AfterEach
+	void tearDown() {
+		importer.shutdown();
+		passwordHashing.shutdown();
+		jdbc.execute("shutdown");
+	}
+
+	@Test
+	void csvFieldsMayBeQuotedAndRowsShort() throws IOException {
+		List<UserRequestDto> users = UserImportService.parseCsv(new StringReader("""
+				Name,Email,Password,Role
+				"Smith, Ann",ann@x.com,"say ""hi"", then go",USER
+
+				Bob , bob@x.com
+				"""));
+
+		assertEquals(2, users.size());
+		assertEquals("Smith, Ann", users.get(0).getName());
+		assertEquals("ann@x.com", users.get(0).getEmail());
+		assertEquals("say \"hi\", then go", users.get(0).getPassword());
+		assertEquals("USER", users.get(0).getRoleName());
+		assertEquals("Bob", users.get(1).getName());
+		assertEquals("bob@x.com", users.get(1).getEmail());
+		assertNull(users.get(1).getPassword());
+		assertNull(users.get(1).getRoleName());
+	}
+
+	@Test
+	void theHeaderIsOptionalAndOnlyRecognisedOnTheFirstLine() throws IOException {
+		List<UserRequestDto> users = UserImportService.parseCsv(new StringReader("""
+				Ann,ann@x.com,secret,USER
+				name,name@x.com,secret,USER
+				"""));
+
+		assertEquals(List.of("Ann", "name"), users.stream().map(UserRequestDto::getName).toList());
+	}
+
+	@Test
+	void eachRowReportsItsOwnOutcome() throws IOException {
+		jdbc.update("insert into users (name, email, password, role_id, token_version, version) " +
+				"values ('Old', 'old@x.com', 'x', 1, 0, 0)");
+		when(emailFilter.mightBeTaken(anyString())).thenReturn(true);
+
+		BulkImportResponseDTO result = importer.importCsv(new StringReader("""
+				name,email,password,roleName
+				Ann,ann@x.com,secret,USER
+				Ann again,ANN@x.com,secret,USER
+				Old,OLD@x.com,secret,USER
+				Short,short@x.com
+				Nobody,nobody@x.com,secret,GHOST
+				Bob,bob@x.com,secret,USER
+				"""));
+
+		assertEquals(6, result.getTotal());
+		assertEquals(2, result.getCreated());
+		assertEquals(4, result.getFailed());
+		assertRow(result.getRows().get(0), 1, "ann@x.com", "CREATED", null);
+		assertRow(result.getRows().get(1), 2, "ANN@x.com", "FAILED", "Duplicate email in import");
+		assertRow(result.getRows().get(2), 3, "OLD@x.com", "FAILED", "Email already exists");
+		assertRow(result.getRows().get(3), 4, "short@x.com", "FAILED", "Password must be at least 5 characters");
+		assertRow(result.getRows().get(4), 5, "nobody@x.com", "FAILED", "Role not found");
+		assertRow(result.getRows().get(5), 6, "bob@x.com", "CREATED", null);
+		assertEquals(List.of("old@x.com", "ann@x.com", "bob@x.com"),
+				jdbc.queryForList("select email from users order by id", String.class));
+	}
+
+	@Test
+	void aBatchThatBreaksTheUniqueKeyIsRetriedRowByRow() {
+		// Inserted after the filter was built, so the up-front check does not see it
+		jdbc.update("insert into users (name, email, password, role_id, token_version, version) " +
+				"values ('Late', 'b@x.com', 'x', 1, 0, 0)");
+
+		BulkImportResponseDTO result = importer.importUsers(List.of(
+				user("A", "a@x.com"), user("B", "b@x.com"), user("C", "c@x.com")));
+
+		assertEquals(2, result.getCreated());
+		assertRow(result.getRows().get(0), 1, "a@x.com", "CREATED", null);
+		assertRow(result.getRows().get(1), 2, "b@x.com", "FAILED", "Duplicate or invalid data");
+		assertRow(result.getRows().get(2), 3, "c@x.com", "CREATED", null);
+		assertEquals(List.of("b@x.com", "a@x.com", "c@x.com"),
+				jdbc.queryForList("select email from users order by id", String.class));
+	}
+
+	private static UserRequestDto user(String name, String email) {
+		UserRequestDto dto = new UserRequestDto();
+		dto.setName(name);
+		dto.setEmail(email);
+		dto.setPassword("secret");
+		dto.setRoleName("USER");
+		return dto;
+	}
+
+	private static void assertRow(BulkImportRowResultDTO row, int index, String email, String status, String message) {
+		assertEquals(index, row.getRow());
+		assertEquals(email, row.getEmail());
+		assertEquals(status, row.getStatus());
+		assertEquals(message, row.getMessage());
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.audit.AuditAction;
+import com.example.usermanagement.audit.AuditLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// What a request pays to audit one login, from 4 threads while the writer thread drains to
+// the segment files. With overflow=drop that is the enqueue alone (entries the writer cannot
+// keep up with are dropped, see the counts printed after each trial); with overflow=wait it is bounded by
+// how fast the writer appends, i.e. the sustained write rate.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AuditLogBenchmark {
+
+    @Param({"drop", "wait"})
+    public String overflow;
+
+    @Param({"interval", "batch"})
+    public String fsync;
+
+    private Path dir;
+    private AuditLog auditLog;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("audit-bench");
+        auditLog = new AuditLog(true, dir, DataSize.ofMegabytes(64), 65536, 1024,
+                overflow, fsync, Duration.ofSeconds(1), Duration.ZERO);
+        auditLog.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        auditLog.shutdown();
+        System.out.printf("%nwritten %d, dropped %d%n", auditLog.writtenCount(), auditLog.droppedCount());
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        auditLog.record(AuditAction.LOGIN, "user1@bench.local", "user1@bench.local", "127.0.0.1");
+    }
+}
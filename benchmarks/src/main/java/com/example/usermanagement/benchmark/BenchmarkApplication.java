@@ -0,0 +1,96 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.UsermanagementApplication;
+import com.example.usermanagement.service.RoleRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Starts the real application against an in-memory H2 database in MySQL mode
+final class BenchmarkApplication {
+
+    // BCrypt hash of "secret2", shared by every seeded user so seeding does not hash
+    static final String PASSWORD = "secret2";
+    static final String PASSWORD_HASH =
+            "$2a$10$FdyjdP22R49SJNbhCD2EMuBPJ6kBQPVAaGzttQfutMSFZbPAbu2em";
+
+    static final String URL = "jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final int INSERT_BATCH = 5_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+
+        ConfigurableApplicationContext context = run(extraProperties);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("insert into roles (name) values ('ADMIN')");
+        jdbc.update("insert into roles (name) values ('EMPLOYEE')");
+        context.getBean(RoleRegistry.class).refresh();
+
+        return context;
+    }
+
+    // The application alone, without roles or users
+    static ConfigurableApplicationContext run(String... extraProperties) {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", URL);
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.flyway.enabled", "false");
+        // The prod profile fixes the MySQL dialect
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("logging.level.root", "WARN");
+
+        for (String property : extraProperties) {
+            int eq = property.indexOf('=');
+            properties.put(property.substring(0, eq), property.substring(eq + 1));
+        }
+
+        // Command-line arguments, so they override application.properties
+        String[] args = properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+
+        // main() is not on the stack; with -Dspring.aot.enabled=true Boot needs it named
+        return new SpringApplicationBuilder(UsermanagementApplication.class)
+                .main(UsermanagementApplication.class)
+                .run(args);
+    }
+
+    // Inserts user1@bench.local .. user{count}@bench.local
+    static void seedUsers(ConfigurableApplicationContext context, int count) {
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Long roleId = jdbc.queryForObject(
+                "select id from roles where name = 'EMPLOYEE'", Long.class);
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 1; i <= count; i++) {
+            batch.add(new Object[] {"User " + i, email(i), PASSWORD_HASH, roleId});
+            if (batch.size() == INSERT_BATCH || i == count) {
+                jdbc.batchUpdate(
+                        "insert into users (name, email, password, role_id, token_version, version) "
+                                + "values (?, ?, ?, ?, 0, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    static String email(int i) {
+        return "user" + i + "@bench.local";
+    }
+}
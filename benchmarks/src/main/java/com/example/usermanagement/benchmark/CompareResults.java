@@ -0,0 +1,81 @@
+package com.example.usermanagement.benchmark;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (written with {@code -rf json}) and exits with
+ * status 1 when any benchmark present in both got slower by more than the threshold.
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.example.usermanagement.benchmark.CompareResults \
+ *     -Dexec.args="baseline.json target/jmh-result.json 10"
+ * </pre>
+ *
+ * The threshold is a percentage and defaults to 10. All modes used here are
+ * time per operation, so a higher score is a regression.
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Double> baseline = scores(new File(args[0]));
+        Map<String, Double> current = scores(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double before = baseline.get(entry.getKey());
+            if (before == null || before == 0) {
+                continue;
+            }
+            double change = (entry.getValue() - before) / before * 100;
+            boolean regressed = change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %12.3f -> %12.3f  %+7.1f%%%s%n",
+                    entry.getKey(), before, entry.getValue(), change,
+                    regressed ? "  REGRESSION" : "");
+        }
+
+        System.out.printf("%d regression(s) over %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Key is benchmark name plus its params, e.g. "...UserListingBenchmark.pages [rows=1000]"
+    private static Map<String, Double> scores(File file) {
+
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+
+            StringBuilder key = new StringBuilder(result.get("benchmark").asString());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                key.append(" [");
+                Iterator<Map.Entry<String, JsonNode>> fields = params.properties().iterator();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(param.getKey()).append('=').append(param.getValue().asString());
+                    if (fields.hasNext()) {
+                        key.append(", ");
+                    }
+                }
+                key.append(']');
+            }
+
+            scores.put(key.toString(), result.get("primaryMetric").get("score").asDouble());
+        }
+        return scores;
+    }
+}
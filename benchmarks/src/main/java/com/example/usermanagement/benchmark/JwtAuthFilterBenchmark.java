@@ -0,0 +1,89 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.security.JwtAuthFilter;
+import com.example.usermanagement.security.JwtService;
+import com.example.usermanagement.security.TokenDenylist;
+import com.example.usermanagement.security.TokenRevocations;
+import com.example.usermanagement.security.UserPrincipal;
+import com.example.usermanagement.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+// One authenticated request through JwtAuthFilter with a no-op chain.
+// "db" loads the principal through CustomUserDetailsService (user cache on, backed by H2),
+// "stateless" builds it from the verified claims.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"db", "stateless"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedUsers(context, 1_000);
+
+        CustomUserDetailsService userDetailsService = context.getBean(CustomUserDetailsService.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+
+        filter = new JwtAuthFilter(
+                jwtService,
+                userDetailsService,
+                context.getBean(TokenRevocations.class),
+                context.getBean(TokenDenylist.class),
+                context.getBean(MeterRegistry.class),
+                "stateless".equals(mode));
+
+        UserPrincipal user = (UserPrincipal) userDetailsService
+                .loadUserByUsername(BenchmarkApplication.email(1));
+        String token = jwtService.generateToken(user, "EMPLOYEE", user.getTokenVersion());
+
+        request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void doFilter(Blackhole blackhole) throws Exception {
+        filter.doFilter(request, response, chain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
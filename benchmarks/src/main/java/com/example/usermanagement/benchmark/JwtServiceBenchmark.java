@@ -0,0 +1,114 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.security.JwtKeyRing;
+import com.example.usermanagement.security.JwtService;
+import com.example.usermanagement.security.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Token issue and checks per signing algorithm. legacyParseThreeTimes is the original
+// JwtAuthFilter path (HS256 key and parser rebuilt, token parsed three times).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    // The shared secret JwtService used before asymmetric keys
+    private static final String SECRET =
+            "mysecretkeymysecretkeymysecretkey12";
+
+    @Param({"RS256", "ES256"})
+    public String algorithm;
+
+    private JwtKeyRing keyRing;
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+    private String legacyToken;
+
+    @Setup
+    public void setup() {
+        keyRing = new JwtKeyRing(algorithm, "", Duration.ofDays(7),
+                Duration.ofMinutes(10), Duration.ofDays(7));
+        keyRing.start();
+        jwtService = new JwtService(keyRing, Duration.ofMinutes(15), Duration.ofDays(7));
+        user = new User("bench@example.com", "x", List.of());
+        token = jwtService.generateToken(user, "ADMIN");
+        legacyToken = Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim("role", "ADMIN")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @TearDown
+    public void tearDown() {
+        keyRing.shutdown();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user, "ADMIN");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, user);
+    }
+
+    // Old filter: extractUsername, then validateToken (extractUsername + isTokenExpired)
+    @Benchmark
+    public boolean legacyParseThreeTimes() {
+        String username = legacyClaims(legacyToken).getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims(legacyToken).getSubject().equals(user.getUsername())
+                && !legacyClaims(legacyToken).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean verifyOnce() {
+        TokenClaims claims = jwtService.verify(token);
+        return jwtService.validateToken(claims, user);
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
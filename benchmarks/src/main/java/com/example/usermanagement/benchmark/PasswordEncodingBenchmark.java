@@ -0,0 +1,63 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.security.PasswordHashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one hash and one verification per configured algorithm, on the calling thread
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncodingBenchmark {
+
+    @Param({"bcrypt-10", "bcrypt-12", "argon2", "pbkdf2"})
+    public String algorithm;
+
+    private PasswordHashing hashing;
+    private PasswordEncoder encoder;
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] parts = algorithm.split("-");
+        int strength = parts.length > 1 ? Integer.parseInt(parts[1]) : 10;
+
+        hashing = new PasswordHashing(parts[0], strength, 1, 1,
+                Duration.ofSeconds(10), Duration.ofSeconds(1));
+        encoder = hashing.encoder();
+        encoded = encoder.encode(BenchmarkApplication.PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hashing.shutdown();
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(BenchmarkApplication.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(BenchmarkApplication.PASSWORD, encoded);
+    }
+}
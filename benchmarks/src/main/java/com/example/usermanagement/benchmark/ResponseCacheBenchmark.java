@@ -0,0 +1,75 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.cache.EncodedResponse;
+import com.example.usermanagement.dtos.responseDto.RoleResponseDTO;
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.security.Permission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Producing the GET /api/roles and GET /api/users/{id} bodies: serialized by Jackson on every
+// request, as before, or handed out from the bytes ResponseCache encoded once
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseCacheBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+    private List<RoleResponseDTO> roles;
+    private UserResponseDTO user;
+    private EncodedResponse encodedRoles;
+    private EncodedResponse encodedUser;
+
+    @Setup
+    public void setup() {
+        roles = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            roles.add(new RoleResponseDTO((long) i, "ROLE" + i, Permission.mask(Permission.values()) >>> (i % 8)));
+        }
+        user = new UserResponseDTO(42L, "Bench User", "user42@bench.local", "EMPLOYEE", 7L);
+
+        encodedRoles = EncodedResponse.of(objectMapper.writeValueAsBytes(roles), "roles", 1024, cacheControl);
+        encodedUser = EncodedResponse.of(objectMapper.writeValueAsBytes(user), "7", 1024, cacheControl);
+    }
+
+    @Benchmark
+    public byte[] rolesSerialized() {
+        return objectMapper.writeValueAsBytes(roles);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> rolesPreEncoded() {
+        return encodedRoles.toResponseEntity("gzip, deflate, br");
+    }
+
+    @Benchmark
+    public byte[] userSerialized() {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> userPreEncoded() {
+        return encodedUser.toResponseEntity("gzip, deflate, br");
+    }
+}
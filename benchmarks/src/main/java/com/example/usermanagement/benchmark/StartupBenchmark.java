@@ -0,0 +1,80 @@
+package com.example.usermanagement.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// Cold start of a new instance up to its first answered request (GET /actuator/health, which
+// also initializes the DispatcherServlet), once per fresh JVM. The database already holds the
+// current schema, as it does for every instance but the first. With ddl-update Hibernate
+// inspects it (ddl-auto=update, JDBC metadata at boot); with migrations Flyway only reads its
+// history table and Hibernate boots from the configured dialect, as in the prod profile.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"ddl-update", "migrations"})
+    public String schema;
+
+    private HttpClient client;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Flyway.configure()
+                .dataSource(BenchmarkApplication.URL, "sa", "")
+                .load()
+                .migrate();
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+
+        boolean migrations = schema.equals("migrations");
+        context = BenchmarkApplication.run(
+                "spring.profiles.active=prod",
+                "spring.jpa.hibernate.ddl-auto=" + (migrations ? "none" : "update"),
+                "spring.flyway.enabled=" + migrations,
+                "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=" + !migrations);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpResponse<Void> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Health check answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
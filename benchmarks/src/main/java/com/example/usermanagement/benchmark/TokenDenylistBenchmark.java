@@ -0,0 +1,56 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.security.InMemoryDenylistStore;
+import com.example.usermanagement.security.TokenDenylist;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// The per-request denylist check done by JwtAuthFilter; gc.alloc.rate.norm should be 0
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenDenylistBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int entries;
+
+    private TokenDenylist denylist;
+    private String denied;
+    private String allowed;
+
+    @Setup
+    public void setup() {
+        denylist = new TokenDenylist(new InMemoryDenylistStore());
+        long until = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for (int i = 0; i < entries; i++) {
+            denied = UUID.randomUUID().toString();
+            denylist.deny(denied, until);
+        }
+        allowed = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public boolean hit() {
+        return denylist.isDenied(denied);
+    }
+
+    @Benchmark
+    public boolean miss() {
+        return denylist.isDenied(allowed);
+    }
+}
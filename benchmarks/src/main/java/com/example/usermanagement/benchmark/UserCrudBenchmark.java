@@ -0,0 +1,91 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.dtos.responseDto.UserResponseDTO;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UserService create / read / update / delete over 10k users, with the settings of
+// application.properties (default: show-sql, no JDBC batching) or the prod profile.
+// Passwords are hashed at bcrypt strength 4 so the database path is what is measured.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserCrudBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        boolean prod = profile.equals("prod");
+        // BenchmarkApplication turns statement logging off; put back what each profile ships
+        context = BenchmarkApplication.start(
+                "spring.profiles.active=" + profile,
+                "spring.jpa.show-sql=" + !prod,
+                "spring.jpa.properties.hibernate.format_sql=" + !prod,
+                "app.security.password.bcrypt-strength=4");
+        BenchmarkApplication.seedUsers(context, USERS);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponseDTO read() {
+        return userService.getById(randomId());
+    }
+
+    @Benchmark
+    public UserResponseDTO update() {
+        long id = randomId();
+        User user = new User();
+        user.setName("User " + id + " v" + updates.incrementAndGet());
+        user.setEmail(BenchmarkApplication.email((int) id));
+        return userService.update(id, user, null, null);
+    }
+
+    // One user's whole lifetime: insert, then delete
+    @Benchmark
+    public void createAndDelete() {
+        User user = new User();
+        user.setName("New user");
+        user.setEmail("new" + created.incrementAndGet() + "@bench.local");
+        user.setPassword(BenchmarkApplication.PASSWORD);
+        userService.delete(userService.create(user, "EMPLOYEE").getId());
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextInt(USERS) + 1;
+    }
+}
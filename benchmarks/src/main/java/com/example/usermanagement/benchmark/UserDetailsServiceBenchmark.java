@@ -0,0 +1,60 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.service.CustomUserDetailsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// CustomUserDetailsService.loadUserByUsername over 10k users in H2, with the user cache
+// sized to hold everyone ("on") or with a zero TTL so every call queries ("off")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDetailsServiceBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"on", "off"})
+    public String cache;
+
+    private ConfigurableApplicationContext context;
+    private CustomUserDetailsService service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(
+                "app.security.user-cache.max-size=" + USERS,
+                "app.security.user-cache.ttl=" + ("on".equals(cache) ? "1h" : "0ms"));
+        BenchmarkApplication.seedUsers(context, USERS);
+        service = context.getBean(CustomUserDetailsService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        int i = ThreadLocalRandom.current().nextInt(1, USERS + 1);
+        return service.loadUserByUsername(BenchmarkApplication.email(i));
+    }
+}
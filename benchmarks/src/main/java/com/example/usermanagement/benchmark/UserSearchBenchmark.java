@@ -0,0 +1,66 @@
+package com.example.usermanagement.benchmark;
+
+import com.example.usermanagement.service.UserAutocomplete;
+import com.example.usermanagement.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/users/search and /autocomplete over 100k users: the indexed prefix query,
+// and typeahead served from the in-memory index (on) or the database (off).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+
+    private static final int USERS = 100_000;
+
+    @Param({"on", "off"})
+    public String autocomplete;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(
+                "app.users.autocomplete.enabled=" + autocomplete.equals("on"));
+        BenchmarkApplication.seedUsers(context, USERS);
+        if (autocomplete.equals("on")) {
+            context.getBean(UserAutocomplete.class).reload();
+        }
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object search() {
+        return userService.search("user4242", "EMPLOYEE", "email", null, 20);
+    }
+
+    @Benchmark
+    public List<?> typeahead() {
+        return userService.autocomplete("user424", 10);
+    }
+}
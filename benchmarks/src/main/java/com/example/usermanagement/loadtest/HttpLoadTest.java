@@ -0,0 +1,220 @@
+package com.example.usermanagement.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator: each of {@code --concurrency} workers keeps one
+ * request in flight against a running instance for {@code --duration}.
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.example.usermanagement.loadtest.HttpLoadTest \
+ *     -Dexec.args="--scenario users --concurrency 1000 --duration 60s --login admin@x.com:secret1"
+ * </pre>
+ *
+ * Scenarios: {@code users} (GET /api/users?limit=20 with a bearer token),
+ * {@code user} (GET /api/users/1), {@code login} (POST /api/auth/login with the
+ * --login credentials). Prints a summary and one JSON line for scripting.
+ */
+public class HttpLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        String scenario = options.getOrDefault("scenario", "users");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration duration = parseDuration(options.getOrDefault("duration", "30s"));
+        Duration warmup = parseDuration(options.getOrDefault("warmup", "5s"));
+        String login = options.get("login");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        String token = null;
+        if (login != null && !scenario.equals("login")) {
+            token = login(client, baseUrl, login);
+        }
+
+        HttpRequest request = buildRequest(baseUrl, scenario, token, login);
+
+        System.out.printf("scenario=%s concurrency=%d duration=%s warmup=%s%n",
+                scenario, concurrency, duration, warmup);
+
+        run(client, request, concurrency, warmup, null);
+        Result result = new Result();
+        run(client, request, concurrency, duration, result);
+
+        result.print(scenario, concurrency, duration);
+    }
+
+    private static void run(HttpClient client, HttpRequest request, int concurrency,
+                            Duration duration, Result result) throws InterruptedException {
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding())
+                                    .statusCode();
+                        } catch (Exception ex) {
+                            status = -1;
+                        }
+                        if (result != null) {
+                            result.record(status, System.nanoTime() - start);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+    }
+
+    private static HttpRequest buildRequest(String baseUrl, String scenario,
+                                            String token, String login) {
+        HttpRequest.Builder builder;
+        switch (scenario) {
+            case "users" -> builder = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users?limit=20")).GET();
+            case "user" -> builder = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/1")).GET();
+            case "login" -> {
+                if (login == null) {
+                    throw new IllegalArgumentException("--login email:password is required for the login scenario");
+                }
+                builder = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(loginBody(login)));
+            }
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private static String login(HttpClient client, String baseUrl, String login) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginBody(login)))
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static String loginBody(String login) {
+        int colon = login.indexOf(':');
+        return "{\"email\":\"" + login.substring(0, colon)
+                + "\",\"password\":\"" + login.substring(colon + 1) + "\"}";
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    // Latencies go into fixed 100 µs buckets up to 10 s so recording never allocates
+    private static final class Result {
+
+        private static final long BUCKET_NANOS = 100_000;
+        private static final int BUCKETS = 100_000;
+
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS + 1);
+        private final LongAdder requests = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(int status, long nanos) {
+            requests.increment();
+            histogram.incrementAndGet((int) Math.min(BUCKETS, nanos / BUCKET_NANOS));
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        double percentileMillis(double p) {
+            long total = requests.sum();
+            long target = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i <= BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= target && target > 0) {
+                    return (i + 1) * BUCKET_NANOS / 1_000_000.0;
+                }
+            }
+            return maxNanos.get() / 1_000_000.0;
+        }
+
+        void print(String scenario, int concurrency, Duration duration) {
+            long total = requests.sum();
+            double seconds = duration.toMillis() / 1000.0;
+            long ok = statuses.entrySet().stream()
+                    .filter(e -> e.getKey() >= 200 && e.getKey() < 300)
+                    .mapToLong(e -> e.getValue().sum())
+                    .sum();
+
+            List<String> codes = new ArrayList<>();
+            statuses.forEach((code, count) -> codes.add(code + "=" + count.sum()));
+            String[] sorted = codes.toArray(new String[0]);
+            Arrays.sort(sorted);
+
+            System.out.printf("requests=%d ok=%d throughput=%.1f req/s%n", total, ok, total / seconds);
+            System.out.printf("latency p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms%n",
+                    percentileMillis(0.50), percentileMillis(0.90),
+                    percentileMillis(0.99), maxNanos.get() / 1_000_000.0);
+            System.out.printf("status %s%n", String.join(" ", sorted));
+            System.out.printf(
+                    "{\"scenario\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"ok\":%d,"
+                            + "\"throughput\":%.1f,\"p50\":%.2f,\"p90\":%.2f,\"p99\":%.2f}%n",
+                    scenario, concurrency, total, ok, total / seconds,
+                    percentileMillis(0.50), percentileMillis(0.90), percentileMillis(0.99));
+        }
+    }
+}